@@ -0,0 +1,130 @@
+package com.wallet.ledger.adapter.persistence;
+
+import com.wallet.ledger.application.port.PublishBalanceChangesPort;
+import com.wallet.ledger.application.service.BalanceCache;
+import com.wallet.ledger.domain.valueobject.AccountId;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * LISTENs on the balance channel over one dedicated connection and invalidates cached balances changed by other
+ * nodes. Whenever the connection is (re)established the whole cache is dropped, since notifications sent while
+ * not listening are lost.
+ */
+@Component
+@RequiredArgsConstructor
+public class BalanceChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceChangeListener.class);
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final DataSource dataSource;
+    private final BalanceCache balanceCache;
+    private final PublishBalanceChangesPort publishBalanceChangesPort;
+
+    @Value("${ledger.balance-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ledger.balance-cache.notify-channel:ledger_balance}")
+    private String channel;
+
+    @Value("${ledger.balance-cache.notify-enabled:true}")
+    private boolean notifyEnabled;
+
+    @Value("${ledger.balance-cache.listen-poll-ms:500}")
+    private int pollMs;
+
+    private Thread listener;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        if (!enabled || !notifyEnabled) return;
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalStateException("ledger.balance-cache.notify-channel must be a lower-case identifier: " + channel);
+        }
+        running = true;
+        listener = new Thread(this::runLoop, "ledger-balance-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (listener == null) return;
+        running = false;
+        listener.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void runLoop() {
+        while (running) {
+            try (Connection con = dataSource.getConnection()) {
+                listen(con);
+            } catch (SQLException | RuntimeException e) {
+                if (!running) return;
+                log.warn("Balance change listener lost its connection, reconnecting: {}", e.getMessage());
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void listen(Connection con) throws SQLException {
+        con.setAutoCommit(true);
+        try (Statement st = con.createStatement()) {
+            st.execute("LISTEN " + channel);
+        }
+        try {
+            balanceCache.invalidateAll();
+            log.info("Listening for balance changes on channel {}", channel);
+            PGConnection pg = con.unwrap(PGConnection.class);
+            while (running) {
+                PGNotification[] notifications = pg.getNotifications(pollMs);
+                if (notifications == null) continue;
+                for (PGNotification notification : notifications) {
+                    handle(notification.getParameter());
+                }
+            }
+        } finally {
+            try (Statement st = con.createStatement()) {
+                st.execute("UNLISTEN *");
+            } catch (SQLException e) {
+                log.debug("UNLISTEN failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        String[] parts = payload.split(Pattern.quote(BalanceNotificationAdapter.FIELD_SEPARATOR), 3);
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed balance notification: {}", payload);
+            return;
+        }
+        if (parts[0].equals(publishBalanceChangesPort.nodeId()) || parts[2].isEmpty()) return;
+        long publishedAt = Long.parseLong(parts[1]);
+        for (String item : parts[2].split(",")) {
+            int colon = item.indexOf(':');
+            balanceCache.invalidate(AccountId.of(UUID.fromString(item.substring(0, colon))),
+                    Long.parseLong(item.substring(colon + 1)), publishedAt);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.wallet.ledger.adapter.persistence;
+
+import com.wallet.ledger.application.port.AccountBalanceSnapshot;
+import com.wallet.ledger.application.port.PublishBalanceChangesPort;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes balance changes with pg_notify from one background thread, outside the posting transactions: Postgres
+ * serializes the commits of all notifying transactions on its notify queue lock, so NOTIFY inside every posting
+ * would serialize posting commits across the cluster. Changes queued while a send is in flight go out together,
+ * all payloads in one statement. Payload: {@code nodeId|publishedAtMillis|accountId:version,accountId:version,...},
+ * split to stay below the 8000-byte NOTIFY limit. A failed send is retried after notify-retry-ms with the changes
+ * queued meanwhile; the pending batch never grows beyond the queue capacity. When the queue is full the change is
+ * dropped, never sent on the committing thread; other nodes then rely on the cache's expire-after-write. With
+ * notify-enabled=false (single node) nothing is sent.
+ */
+@Component
+@RequiredArgsConstructor
+public class BalanceNotificationAdapter implements PublishBalanceChangesPort {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceNotificationAdapter.class);
+    static final String FIELD_SEPARATOR = "|";
+    private static final int MAX_PAYLOAD_CHARS = 7000;
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, p) FROM unnest(?::text[]) AS p";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${ledger.balance-cache.notify-channel:ledger_balance}")
+    private String channel;
+
+    @Value("${ledger.balance-cache.notify-enabled:true}")
+    private boolean notifyEnabled;
+
+    @Value("${ledger.balance-cache.notify-queue-capacity:100000}")
+    private int queueCapacity;
+
+    @Value("${ledger.balance-cache.notify-retry-ms:1000}")
+    private long retryMs;
+
+    private BlockingQueue<AccountBalanceSnapshot> queue;
+    private Thread publisher;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        if (!notifyEnabled) return;
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        running = true;
+        publisher = new Thread(this::runLoop, "ledger-balance-publisher");
+        publisher.setDaemon(true);
+        publisher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (publisher == null) return;
+        running = false;
+        publisher.interrupt();
+        publisher.join(TimeUnit.SECONDS.toMillis(5));
+        List<AccountBalanceSnapshot> left = new ArrayList<>();
+        queue.drainTo(left);
+        if (!left.isEmpty()) send(left);
+    }
+
+    @Override
+    public int publish(Collection<AccountBalanceSnapshot> snapshots) {
+        if (!notifyEnabled) return 0;
+        int dropped = 0;
+        for (AccountBalanceSnapshot snapshot : snapshots) {
+            if (!queue.offer(snapshot)) dropped++;
+        }
+        return dropped;
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    private void runLoop() {
+        List<AccountBalanceSnapshot> batch = new ArrayList<>();
+        while (running) {
+            try {
+                if (batch.isEmpty()) batch.add(queue.take());
+                queue.drainTo(batch, Math.max(0, queueCapacity - batch.size()));
+                send(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Keep the batch: the next attempt sends it together with whatever was queued meanwhile.
+                log.warn("Balance notification of {} changes failed, retrying in {}ms: {}", batch.size(), retryMs, e.getMessage());
+                try {
+                    Thread.sleep(retryMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void send(List<AccountBalanceSnapshot> snapshots) {
+        String header = nodeId + FIELD_SEPARATOR + System.currentTimeMillis() + FIELD_SEPARATOR;
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(header);
+        for (AccountBalanceSnapshot snapshot : snapshots) {
+            String item = snapshot.accountId().value() + ":" + snapshot.version();
+            if (payload.length() + item.length() + 1 > MAX_PAYLOAD_CHARS) {
+                payloads.add(payload.toString());
+                payload.setLength(0);
+                payload.append(header);
+            }
+            if (payload.length() > header.length()) payload.append(',');
+            payload.append(item);
+        }
+        payloads.add(payload.toString());
+        jdbcTemplate.query(NOTIFY_SQL, ps -> {
+            ps.setString(1, channel);
+            ps.setArray(2, ps.getConnection().createArrayOf("text", payloads.toArray()));
+        }, rs -> null);
+    }
+}
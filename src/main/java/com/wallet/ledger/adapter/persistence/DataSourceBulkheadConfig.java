@@ -0,0 +1,55 @@
+package com.wallet.ledger.adapter.persistence;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a {@link BulkheadDataSource} sized to the Hikari pool. On by default when
+ * virtual threads are enabled (spring.threads.virtual.enabled), where request concurrency is no longer bounded by
+ * the Tomcat thread pool.
+ */
+@Configuration
+public class DataSourceBulkheadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceBulkheadConfig.class);
+
+    @Bean
+    static BeanPostProcessor dataSourceBulkheadPostProcessor(Environment environment) {
+        boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        boolean enabled = environment.getProperty("ledger.db-bulkhead.enabled", Boolean.class, virtualThreads);
+        int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        int maxConcurrent = environment.getProperty("ledger.db-bulkhead.max-concurrent", Integer.class, poolSize);
+        long waitTimeoutMs = environment.getProperty("ledger.db-bulkhead.wait-timeout-ms", Long.class, 5000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource) {
+                    return bean;
+                }
+                log.info("Database bulkhead on dataSource={} maxConcurrent={} waitTimeoutMs={}", beanName, maxConcurrent, waitTimeoutMs);
+                return new BulkheadDataSource(dataSource, maxConcurrent, waitTimeoutMs);
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder dataSourceBulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            if (!(dataSource instanceof BulkheadDataSource bulkhead)) return;
+            Gauge.builder("ledger.db.bulkhead.waiting", bulkhead, BulkheadDataSource::waiting)
+                    .description("Threads queued for a database connection permit")
+                    .register(registry);
+            Gauge.builder("ledger.db.bulkhead.in-use", bulkhead, BulkheadDataSource::inUse)
+                    .description("Connection permits held")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package com.wallet.ledger.adapter.persistence;
+
+import com.wallet.ledger.application.port.DisbursementJob;
+import com.wallet.ledger.application.port.DisbursementJobPort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class DisbursementJobPersistenceAdapter implements DisbursementJobPort {
+
+    private static final String COLUMNS = """
+            SELECT job_id, format, file_path, status, lines_committed, posted, replayed, rejected, posted_amount, error,
+                   created_at, updated_at
+            FROM disbursement_job
+            """;
+
+    private static final RowMapper<DisbursementJob> JOB_ROW_MAPPER = (rs, rowNum) -> new DisbursementJob(
+            UUID.fromString(rs.getString("job_id")),
+            DisbursementJob.Format.valueOf(rs.getString("format")),
+            rs.getString("file_path"),
+            DisbursementJob.Status.valueOf(rs.getString("status")),
+            rs.getLong("lines_committed"),
+            rs.getLong("posted"),
+            rs.getLong("replayed"),
+            rs.getLong("rejected"),
+            rs.getBigDecimal("posted_amount"),
+            rs.getString("error"),
+            rs.getTimestamp("created_at").toInstant(),
+            rs.getTimestamp("updated_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void create(DisbursementJob job) {
+        jdbcTemplate.update("""
+                        INSERT INTO disbursement_job (job_id, format, file_path, status, created_at, updated_at)
+                        VALUES (?, ?, ?, ?, ?, ?)
+                        """,
+                job.jobId(), job.format().name(), job.filePath(), job.status().name(),
+                Timestamp.from(job.createdAt()), Timestamp.from(job.updatedAt()));
+    }
+
+    @Override
+    public Optional<DisbursementJob> findById(UUID jobId) {
+        List<DisbursementJob> list = jdbcTemplate.query(COLUMNS + "WHERE job_id = ?", JOB_ROW_MAPPER, jobId);
+        return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
+    }
+
+    @Override
+    public List<DisbursementJob> findByStatus(DisbursementJob.Status status) {
+        return jdbcTemplate.query(COLUMNS + "WHERE status = ? ORDER BY created_at", JOB_ROW_MAPPER, status.name());
+    }
+
+    @Override
+    public boolean claim(UUID jobId, Instant staleBefore) {
+        return jdbcTemplate.update("""
+                        UPDATE disbursement_job
+                        SET status = 'RUNNING', error = NULL, updated_at = ?
+                        WHERE job_id = ? AND (status IN ('PENDING', 'FAILED') OR (status = 'RUNNING' AND updated_at < ?))
+                        """,
+                Timestamp.from(Instant.now()), jobId, Timestamp.from(staleBefore)) == 1;
+    }
+
+    @Override
+    public void heartbeat(UUID jobId) {
+        jdbcTemplate.update("UPDATE disbursement_job SET updated_at = ? WHERE job_id = ? AND status = 'RUNNING'",
+                Timestamp.from(Instant.now()), jobId);
+    }
+
+    @Override
+    public void checkpoint(UUID jobId, long linesCommitted, long posted, long replayed, long rejected, BigDecimal postedAmount) {
+        jdbcTemplate.update("""
+                        UPDATE disbursement_job
+                        SET lines_committed = ?, posted = posted + ?, replayed = replayed + ?, rejected = rejected + ?,
+                            posted_amount = posted_amount + ?, updated_at = ?
+                        WHERE job_id = ? AND lines_committed < ?
+                        """,
+                linesCommitted, posted, replayed, rejected, postedAmount, Timestamp.from(Instant.now()), jobId, linesCommitted);
+    }
+
+    @Override
+    public void updateStatus(UUID jobId, DisbursementJob.Status status, String error) {
+        jdbcTemplate.update("UPDATE disbursement_job SET status = ?, error = ?, updated_at = ? WHERE job_id = ?",
+                status.name(), error, Timestamp.from(Instant.now()), jobId);
+    }
+}
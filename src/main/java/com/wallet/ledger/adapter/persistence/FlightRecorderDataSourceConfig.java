@@ -0,0 +1,44 @@
+package com.wallet.ledger.adapter.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a {@link StatementCountingDataSource} while the flight recorder is enabled.
+ * Ordered so it runs before {@link DataSourceBulkheadConfig}: the bulkhead stays the outermost DataSource.
+ */
+@Configuration
+public class FlightRecorderDataSourceConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderDataSourceConfig.class);
+
+    @Bean
+    static BeanPostProcessor statementCountingPostProcessor(Environment environment) {
+        boolean enabled = environment.getProperty("ledger.flight-recorder.enabled", Boolean.class, true);
+        return new OrderedPostProcessor(enabled);
+    }
+
+    private record OrderedPostProcessor(boolean enabled) implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof StatementCountingDataSource) {
+                return bean;
+            }
+            log.info("Counting SQL statements per request on dataSource={}", beanName);
+            return new StatementCountingDataSource(dataSource);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -5,82 +5,293 @@ import com.wallet.ledger.domain.entity.LedgerEntry;
 import com.wallet.ledger.domain.entity.Transaction;
 import com.wallet.ledger.domain.valueobject.*;
 import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.math.BigDecimal;
-import java.sql.Timestamp;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
-public class LedgerPersistenceAdapter implements LoadAccountBalancesPort, PersistPostingPort, FindLedgerEntriesByTransactionIdPort {
+public class LedgerPersistenceAdapter implements LoadAccountBalancesPort, PersistPostingPort, FindLedgerEntriesByTransactionIdPort,
+        UpdateAccountBalancesPort, AuditLedgerSequencePort {
 
     private static final Logger log = LoggerFactory.getLogger(LedgerPersistenceAdapter.class);
-    private static final String LATEST_BALANCE_SQL = """
-            SELECT balance_after FROM ledger_entry
+    private static final String BALANCE_SNAPSHOT_SQL = """
+            SELECT account_id, balance, version, last_entry_id, last_account_seq FROM account_balance
+            WHERE account_id = ANY(?)
+            """;
+    private static final String BULK_BALANCE_SQL = """
+            SELECT account_id, balance FROM account_balance
+            WHERE account_id = ANY(?)
+            """;
+    private static final String CAS_UPDATE_BALANCES_SQL = """
+            UPDATE account_balance b
+            SET balance = u.balance, version = b.version + 1, last_entry_id = u.last_entry_id, last_account_seq = u.last_account_seq
+            FROM unnest(?::uuid[], ?::numeric[], ?::uuid[], ?::int8[], ?::int8[])
+                AS u(account_id, balance, last_entry_id, last_account_seq, expected)
+            WHERE b.account_id = u.account_id AND b.version = u.expected
+            """;
+    private static final String INSERT_BALANCES_SQL = """
+            INSERT INTO account_balance (account_id, balance, version, last_entry_id, last_account_seq)
+            SELECT u.account_id, u.balance, 1, u.last_entry_id, u.last_account_seq
+            FROM unnest(?::uuid[], ?::numeric[], ?::uuid[], ?::int8[]) AS u(account_id, balance, last_entry_id, last_account_seq)
+            ON CONFLICT (account_id) DO NOTHING
+            """;
+    private static final String LATEST_ENTRY_SQL = """
+            SELECT account_seq, balance_after FROM ledger_entry
             WHERE account_id = ?
-            ORDER BY created_at DESC
+            ORDER BY account_seq DESC
             LIMIT 1
             """;
+    private static final String SEQUENCE_GAPS_SQL = """
+            SELECT prev_seq + 1 AS from_seq, account_seq - 1 AS to_seq
+            FROM (
+                SELECT account_seq, LAG(account_seq, 1, 0::BIGINT) OVER (ORDER BY account_seq) AS prev_seq
+                FROM ledger_entry
+                WHERE account_id = ?
+            ) s
+            WHERE account_seq <> prev_seq + 1
+            ORDER BY account_seq
+            """;
+
+    /** An async posting already has its PENDING row (same txn_id); posting it promotes that row instead of inserting. */
+    private static final String INSERT_TRANSACTIONS_SQL = """
+            INSERT INTO transaction (txn_id, txn_type, status, reference_id, created_at, service_bundle_id, provisioning_reference)
+            SELECT * FROM unnest(?::uuid[], ?::varchar[], ?::varchar[], ?::varchar[], ?::timestamptz[], ?::uuid[], ?::varchar[])
+            ON CONFLICT (txn_id) DO UPDATE SET status = EXCLUDED.status WHERE transaction.status = 'PENDING'
+            """;
+    private static final String INSERT_ENTRIES_SQL = """
+            INSERT INTO ledger_entry (entry_id, txn_id, account_id, direction, amount, balance_after, account_seq, created_at)
+            SELECT * FROM unnest(?::uuid[], ?::uuid[], ?::uuid[], ?::varchar[], ?::numeric[], ?::numeric[], ?::int8[], ?::timestamptz[])
+            """;
+    private static final String COPY_ENTRIES_SQL = """
+            COPY ledger_entry (entry_id, txn_id, account_id, direction, amount, balance_after, account_seq, created_at)
+            FROM STDIN (FORMAT csv)
+            """;
+
+    private static final RowMapper<AccountBalanceSnapshot> BALANCE_SNAPSHOT_ROW_MAPPER = (rs, rowNum) -> {
+        String lastEntryId = rs.getString("last_entry_id");
+        return new AccountBalanceSnapshot(
+                AccountId.of(UUID.fromString(rs.getString("account_id"))),
+                LedgerAmount.of(rs.getBigDecimal("balance")),
+                rs.getLong("version"),
+                lastEntryId != null ? EntryId.of(UUID.fromString(lastEntryId)) : null,
+                rs.getLong("last_account_seq"));
+    };
 
     private static final RowMapper<LedgerEntry> LEDGER_ENTRY_ROW_MAPPER = (rs, rowNum) -> LedgerEntry.builder()
             .entryId(EntryId.of(UUID.fromString(rs.getString("entry_id"))))
             .transactionId(TransactionId.of(UUID.fromString(rs.getString("txn_id"))))
             .accountId(AccountId.of(UUID.fromString(rs.getString("account_id"))))
             .direction(EntryDirection.valueOf(rs.getString("direction")))
-            .amount(rs.getBigDecimal("amount"))
-            .balanceAfter(rs.getBigDecimal("balance_after"))
+            .amount(LedgerAmount.of(rs.getBigDecimal("amount")))
+            .balanceAfter(LedgerAmount.of(rs.getBigDecimal("balance_after")))
+            .accountSeq(rs.getLong("account_seq"))
             .createdAt(toInstant(rs.getTimestamp("created_at")))
             .build();
 
     private final JdbcTemplate jdbcTemplate;
 
+    @Value("${ledger.balances.bulk-chunk-size:5000}")
+    private int bulkChunkSize;
+
+    @Value("${ledger.persistence.copy-threshold:5000}")
+    private int copyThreshold;
+
     @Override
     public Map<AccountId, BigDecimal> loadBalances(Set<AccountId> accountIds) {
-        if (accountIds == null || accountIds.isEmpty()) return Map.of();
         Map<AccountId, BigDecimal> map = new HashMap<>();
+        loadSnapshots(accountIds).forEach((accountId, snapshot) -> map.put(accountId, snapshot.balance().toBigDecimal()));
+        return Map.copyOf(map);
+    }
+
+    @Override
+    public Map<AccountId, AccountBalanceSnapshot> loadSnapshots(Set<AccountId> accountIds) {
+        if (accountIds == null || accountIds.isEmpty()) return Map.of();
+        Map<AccountId, AccountBalanceSnapshot> map = new HashMap<>(accountIds.size() * 2);
+        jdbcTemplate.query(BALANCE_SNAPSHOT_SQL, ps -> ps.setArray(1, uuidArray(ps, accountIds)),
+                (RowCallbackHandler) rs -> {
+                    AccountBalanceSnapshot snapshot = BALANCE_SNAPSHOT_ROW_MAPPER.mapRow(rs, 0);
+                    map.put(snapshot.accountId(), snapshot);
+                });
         for (AccountId accountId : accountIds) {
-            List<BigDecimal> list = jdbcTemplate.query(LATEST_BALANCE_SQL,
-                    (rs, rowNum) -> rs.getBigDecimal("balance_after"), accountId.value());
-            map.put(accountId, list.isEmpty() ? BigDecimal.ZERO : list.get(0));
+            map.computeIfAbsent(accountId, AccountBalanceSnapshot::empty);
         }
         return Map.copyOf(map);
     }
 
+    @Override
+    public Map<AccountId, BigDecimal> loadBalancesInBulk(Collection<AccountId> accountIds) {
+        if (accountIds == null || accountIds.isEmpty()) return Map.of();
+        List<AccountId> ids = accountIds.stream().distinct().toList();
+        Map<AccountId, BigDecimal> map = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += bulkChunkSize) {
+            List<AccountId> chunk = ids.subList(from, Math.min(from + bulkChunkSize, ids.size()));
+            jdbcTemplate.query(BULK_BALANCE_SQL, ps -> ps.setArray(1, uuidArray(ps, chunk)),
+                    (RowCallbackHandler) rs -> map.put(AccountId.of(UUID.fromString(rs.getString("account_id"))), rs.getBigDecimal("balance")));
+        }
+        for (AccountId accountId : ids) {
+            map.putIfAbsent(accountId, BigDecimal.ZERO);
+        }
+        log.debug("Bulk balance load accounts={} chunks={}", ids.size(), (ids.size() + bulkChunkSize - 1) / bulkChunkSize);
+        return map;
+    }
+
+    private static Array uuidArray(PreparedStatement ps, Collection<AccountId> accountIds) throws SQLException {
+        return ps.getConnection().createArrayOf("uuid", accountIds.stream().map(AccountId::value).toArray());
+    }
+
+    /** At most two statements: one unnest UPDATE for existing rows, one multi-row INSERT for first postings (version 0). */
+    @Override
+    public void compareAndSet(List<AccountBalanceUpdate> updates) {
+        List<AccountBalanceUpdate> inserts = updates.stream().filter(u -> u.expectedVersion() == 0).toList();
+        List<AccountBalanceUpdate> casUpdates = updates.stream().filter(u -> u.expectedVersion() != 0).toList();
+        if (!casUpdates.isEmpty()) {
+            int rows = jdbcTemplate.update(CAS_UPDATE_BALANCES_SQL, ps -> {
+                setBalanceArrays(ps, casUpdates);
+                ps.setArray(5, ps.getConnection().createArrayOf("int8", casUpdates.stream().map(AccountBalanceUpdate::expectedVersion).toArray()));
+            });
+            checkApplied(rows, casUpdates);
+        }
+        if (!inserts.isEmpty()) {
+            checkApplied(jdbcTemplate.update(INSERT_BALANCES_SQL, ps -> setBalanceArrays(ps, inserts)), inserts);
+        }
+    }
+
+    private static void setBalanceArrays(PreparedStatement ps, List<AccountBalanceUpdate> updates) throws SQLException {
+        Connection con = ps.getConnection();
+        ps.setArray(1, con.createArrayOf("uuid", updates.stream().map(u -> u.accountId().value()).toArray()));
+        ps.setArray(2, con.createArrayOf("numeric", updates.stream().map(u -> u.balance().toBigDecimal()).toArray()));
+        ps.setArray(3, con.createArrayOf("uuid", updates.stream().map(u -> u.lastEntryId().value()).toArray()));
+        ps.setArray(4, con.createArrayOf("int8", updates.stream().map(AccountBalanceUpdate::lastAccountSeq).toArray()));
+    }
+
+    private static void checkApplied(int rows, List<AccountBalanceUpdate> updates) {
+        if (rows != updates.size()) {
+            throw new OptimisticLockingFailureException("Balance version conflict on " + (updates.size() - rows) + " of " + updates.size()
+                    + " accounts " + updates.stream().map(u -> u.accountId().value() + "@" + u.expectedVersion()).toList());
+        }
+    }
+
+    @Override
+    public List<SequenceGap> findSequenceGaps(AccountId accountId) {
+        return jdbcTemplate.query(SEQUENCE_GAPS_SQL,
+                (rs, rowNum) -> new SequenceGap(rs.getLong("from_seq"), rs.getLong("to_seq")), accountId.value());
+    }
+
+    @Override
+    public Optional<LatestAccountEntry> findLatestEntry(AccountId accountId) {
+        List<LatestAccountEntry> list = jdbcTemplate.query(LATEST_ENTRY_SQL,
+                (rs, rowNum) -> new LatestAccountEntry(rs.getLong("account_seq"), rs.getBigDecimal("balance_after")), accountId.value());
+        return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
+    }
+
     @Override
     public void persist(Transaction transaction, List<LedgerEntry> entries) {
-        log.trace("Persist txnId={} entries={}", transaction.getTransactionId().value(), entries.size());
-        jdbcTemplate.update(
-                "INSERT INTO transaction (txn_id, txn_type, status, reference_id, created_at, service_bundle_id, provisioning_reference) VALUES (?, ?, ?, ?, ?, ?, ?)",
-                transaction.getTransactionId().value(), transaction.getTransactionType().name(),
-                transaction.getStatus().name(), transaction.getReferenceId(),
-                Timestamp.from(transaction.getCreatedAt()),
-                transaction.getServiceBundleId(), transaction.getProvisioningReference());
-        String insertEntry = "INSERT INTO ledger_entry (entry_id, txn_id, account_id, direction, amount, balance_after, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        for (LedgerEntry entry : entries) {
-            jdbcTemplate.update(insertEntry,
-                    entry.getEntryId().value(), entry.getTransactionId().value(), entry.getAccountId().value(),
-                    entry.getDirection().name(), entry.getAmount(), entry.getBalanceAfter(),
-                    Timestamp.from(entry.getCreatedAt()));
+        persistAll(List.of(transaction), entries);
+    }
+
+    @Override
+    public void persistAll(List<Transaction> transactions, List<LedgerEntry> entries) {
+        if (transactions.isEmpty()) return;
+        log.trace("Persist transactions={} entries={}", transactions.size(), entries.size());
+        int written = jdbcTemplate.update(INSERT_TRANSACTIONS_SQL, ps -> {
+            Connection con = ps.getConnection();
+            ps.setArray(1, con.createArrayOf("uuid", transactions.stream().map(t -> t.getTransactionId().value()).toArray()));
+            ps.setArray(2, con.createArrayOf("varchar", transactions.stream().map(t -> t.getTransactionType().name()).toArray()));
+            ps.setArray(3, con.createArrayOf("varchar", transactions.stream().map(t -> t.getStatus().name()).toArray()));
+            ps.setArray(4, con.createArrayOf("varchar", transactions.stream().map(Transaction::getReferenceId).toArray()));
+            ps.setArray(5, con.createArrayOf("varchar", transactions.stream().map(t -> t.getCreatedAt().toString()).toArray()));
+            ps.setArray(6, con.createArrayOf("uuid", transactions.stream().map(Transaction::getServiceBundleId).toArray()));
+            ps.setArray(7, con.createArrayOf("varchar", transactions.stream().map(Transaction::getProvisioningReference).toArray()));
+        });
+        if (written != transactions.size()) {
+            // A txn_id that is no longer PENDING was posted concurrently; writing its entries again would double-post.
+            throw new DuplicateKeyException("Transaction already settled: " + (transactions.size() - written) + " of " + transactions.size());
+        }
+        if (entries.isEmpty()) return;
+        if (entries.size() >= copyThreshold) {
+            copyEntries(entries);
+            return;
         }
+        jdbcTemplate.update(INSERT_ENTRIES_SQL, ps -> {
+            Connection con = ps.getConnection();
+            ps.setArray(1, con.createArrayOf("uuid", entries.stream().map(e -> e.getEntryId().value()).toArray()));
+            ps.setArray(2, con.createArrayOf("uuid", entries.stream().map(e -> e.getTransactionId().value()).toArray()));
+            ps.setArray(3, con.createArrayOf("uuid", entries.stream().map(e -> e.getAccountId().value()).toArray()));
+            ps.setArray(4, con.createArrayOf("varchar", entries.stream().map(e -> e.getDirection().name()).toArray()));
+            ps.setArray(5, con.createArrayOf("numeric", entries.stream().map(e -> e.getAmount().toBigDecimal()).toArray()));
+            ps.setArray(6, con.createArrayOf("numeric", entries.stream().map(e -> e.getBalanceAfter().toBigDecimal()).toArray()));
+            ps.setArray(7, con.createArrayOf("int8", entries.stream().map(LedgerEntry::getAccountSeq).toArray()));
+            ps.setArray(8, con.createArrayOf("varchar", entries.stream().map(e -> e.getCreatedAt().toString()).toArray()));
+        });
+    }
+
+    /** Streams entries through COPY FROM STDIN; all values are UUIDs, enum names, numbers or ISO instants, so no CSV quoting is needed. */
+    private void copyEntries(List<LedgerEntry> entries) {
+        StringBuilder csv = new StringBuilder(entries.size() * 192);
+        for (LedgerEntry e : entries) {
+            csv.append(e.getEntryId().value()).append(',')
+                    .append(e.getTransactionId().value()).append(',')
+                    .append(e.getAccountId().value()).append(',')
+                    .append(e.getDirection().name()).append(',')
+                    .append(e.getAmount()).append(',')
+                    .append(e.getBalanceAfter()).append(',')
+                    .append(e.getAccountSeq()).append(',')
+                    .append(e.getCreatedAt()).append('\n');
+        }
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            try {
+                return con.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_ENTRIES_SQL, new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new DataAccessResourceFailureException("COPY into ledger_entry failed", e);
+            }
+        });
+        log.debug("Copied ledger entries rows={}", rows);
     }
 
     @Override
     public List<LedgerEntry> findByTransactionId(TransactionId transactionId) {
         return jdbcTemplate.query(
-                "SELECT entry_id, txn_id, account_id, direction, amount, balance_after, created_at FROM ledger_entry WHERE txn_id = ? ORDER BY created_at",
+                "SELECT entry_id, txn_id, account_id, direction, amount, balance_after, account_seq, created_at FROM ledger_entry WHERE txn_id = ? ORDER BY account_id, account_seq",
                 LEDGER_ENTRY_ROW_MAPPER, transactionId.value());
     }
 
+    @Override
+    public Map<TransactionId, List<LedgerEntry>> findByTransactionIds(Collection<TransactionId> transactionIds) {
+        if (transactionIds.isEmpty()) return Map.of();
+        List<LedgerEntry> entries = jdbcTemplate.query(
+                "SELECT entry_id, txn_id, account_id, direction, amount, balance_after, account_seq, created_at FROM ledger_entry WHERE txn_id = ANY(?) ORDER BY account_id, account_seq",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", transactionIds.stream().map(TransactionId::value).toArray())),
+                LEDGER_ENTRY_ROW_MAPPER);
+        return entries.stream().collect(Collectors.groupingBy(LedgerEntry::getTransactionId));
+    }
+
     private static Instant toInstant(java.sql.Timestamp ts) {
         return ts == null ? null : ts.toInstant();
     }
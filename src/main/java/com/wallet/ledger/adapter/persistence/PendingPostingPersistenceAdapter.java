@@ -0,0 +1,169 @@
+package com.wallet.ledger.adapter.persistence;
+
+import com.wallet.ledger.application.port.PostingCommand;
+import com.wallet.ledger.application.port.PostingLeg;
+import com.wallet.ledger.application.port.PostingQueuePort;
+import com.wallet.ledger.application.port.QueuedPosting;
+import com.wallet.ledger.domain.entity.Transaction;
+import com.wallet.ledger.domain.valueobject.AccountId;
+import com.wallet.ledger.domain.valueobject.EntryDirection;
+import com.wallet.ledger.domain.valueobject.TransactionId;
+import com.wallet.ledger.domain.valueobject.TransactionStatus;
+import com.wallet.ledger.domain.valueobject.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class PendingPostingPersistenceAdapter implements PostingQueuePort {
+
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private static final String ENQUEUE_SQL = """
+            WITH txn AS (
+                INSERT INTO transaction (txn_id, txn_type, status, reference_id, created_at, service_bundle_id, provisioning_reference)
+                VALUES (?, ?, 'PENDING', ?, ?, ?, ?)
+                RETURNING txn_id
+            )
+            INSERT INTO pending_posting (txn_id, leg_accounts, leg_directions, leg_amounts, created_at)
+            SELECT txn_id, ?::uuid[], ?::varchar[], ?::numeric[], ? FROM txn
+            """;
+    private static final String CLAIM_SQL = """
+            UPDATE pending_posting p
+            SET available_at = clock_timestamp() + ? * interval '1 millisecond', attempts = p.attempts + 1
+            FROM transaction t
+            WHERE t.txn_id = p.txn_id
+              AND p.txn_id IN (
+                  SELECT txn_id FROM pending_posting
+                  WHERE state = 'QUEUED' AND available_at <= clock_timestamp()
+                  ORDER BY available_at
+                  LIMIT ?
+                  FOR UPDATE SKIP LOCKED)
+            RETURNING p.txn_id, p.leg_accounts, p.leg_directions, p.leg_amounts, p.attempts,
+                      t.txn_type, t.reference_id, t.service_bundle_id, t.provisioning_reference
+            """;
+
+    /** One statement, so the transaction and its queue row never disagree even without a surrounding transaction. */
+    private static final String FAIL_SQL = """
+            WITH txn AS (
+                UPDATE transaction SET status = 'FAILED' WHERE txn_id = ? AND status = 'PENDING'
+            )
+            UPDATE pending_posting SET state = 'FAILED', error = ? WHERE txn_id = ?
+            """;
+
+    private static final RowMapper<List<PostingLeg>> LEGS_ROW_MAPPER = (rs, rowNum) -> {
+        Object[] accounts = (Object[]) rs.getArray("leg_accounts").getArray();
+        Object[] directions = (Object[]) rs.getArray("leg_directions").getArray();
+        Object[] amounts = (Object[]) rs.getArray("leg_amounts").getArray();
+        List<PostingLeg> legs = new ArrayList<>(accounts.length);
+        for (int i = 0; i < accounts.length; i++) {
+            legs.add(PostingLeg.builder()
+                    .accountId(AccountId.of((UUID) accounts[i]))
+                    .direction(EntryDirection.valueOf((String) directions[i]))
+                    .amount((BigDecimal) amounts[i])
+                    .build());
+        }
+        return legs;
+    };
+
+    private static final RowMapper<QueuedPosting> QUEUED_ROW_MAPPER = (rs, rowNum) -> {
+        PostingCommand command = PostingCommand.builder()
+                .transactionId(TransactionId.of(UUID.fromString(rs.getString("txn_id"))))
+                .transactionType(TransactionType.valueOf(rs.getString("txn_type")))
+                .referenceId(rs.getString("reference_id"))
+                .legs(LEGS_ROW_MAPPER.mapRow(rs, rowNum))
+                .serviceBundleId(rs.getObject("service_bundle_id", UUID.class))
+                .provisioningReference(rs.getString("provisioning_reference"))
+                .build();
+        return new QueuedPosting(command, rs.getInt("attempts"));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Transaction enqueue(PostingCommand command) {
+        Instant now = Instant.now();
+        List<PostingLeg> legs = command.getLegs();
+        jdbcTemplate.update(ENQUEUE_SQL, ps -> {
+            Connection con = ps.getConnection();
+            ps.setObject(1, command.getTransactionId().value());
+            ps.setString(2, command.getTransactionType().name());
+            ps.setString(3, command.getReferenceId());
+            ps.setTimestamp(4, Timestamp.from(now));
+            ps.setObject(5, command.getServiceBundleId());
+            ps.setString(6, command.getProvisioningReference());
+            ps.setArray(7, con.createArrayOf("uuid", legs.stream().map(l -> l.getAccountId().value()).toArray()));
+            ps.setArray(8, con.createArrayOf("varchar", legs.stream().map(l -> l.getDirection().name()).toArray()));
+            ps.setArray(9, con.createArrayOf("numeric", legs.stream().map(l -> l.getAmount().toBigDecimal()).toArray()));
+            ps.setTimestamp(10, Timestamp.from(now));
+        });
+        return Transaction.builder()
+                .transactionId(command.getTransactionId())
+                .transactionType(command.getTransactionType())
+                .status(TransactionStatus.PENDING)
+                .referenceId(command.getReferenceId())
+                .createdAt(now)
+                .serviceBundleId(command.getServiceBundleId())
+                .provisioningReference(command.getProvisioningReference())
+                .build();
+    }
+
+    @Override
+    public List<QueuedPosting> claim(int limit, Duration lease) {
+        return jdbcTemplate.query(CLAIM_SQL, QUEUED_ROW_MAPPER, lease.toMillis(), limit);
+    }
+
+    @Override
+    public void remove(Collection<TransactionId> transactionIds) {
+        if (transactionIds.isEmpty()) return;
+        jdbcTemplate.update("DELETE FROM pending_posting WHERE txn_id = ANY(?)", ps -> ps.setArray(1, uuidArray(ps.getConnection(), transactionIds)));
+    }
+
+    @Override
+    public void fail(TransactionId transactionId, String error) {
+        String reason = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        jdbcTemplate.update(FAIL_SQL, transactionId.value(), reason, transactionId.value());
+    }
+
+    @Override
+    public void release(Collection<TransactionId> transactionIds, Duration delay) {
+        if (transactionIds.isEmpty()) return;
+        jdbcTemplate.update("UPDATE pending_posting SET available_at = clock_timestamp() + ? * interval '1 millisecond' WHERE txn_id = ANY(?)", ps -> {
+            ps.setLong(1, delay.toMillis());
+            ps.setArray(2, uuidArray(ps.getConnection(), transactionIds));
+        });
+    }
+
+    @Override
+    public Optional<String> findError(TransactionId transactionId) {
+        List<String> list = jdbcTemplate.queryForList("SELECT error FROM pending_posting WHERE txn_id = ? AND state = 'FAILED'",
+                String.class, transactionId.value());
+        return list.isEmpty() ? Optional.empty() : Optional.ofNullable(list.get(0));
+    }
+
+    @Override
+    public List<PostingLeg> findLegs(TransactionId transactionId) {
+        List<List<PostingLeg>> list = jdbcTemplate.query("SELECT leg_accounts, leg_directions, leg_amounts FROM pending_posting WHERE txn_id = ?",
+                LEGS_ROW_MAPPER, transactionId.value());
+        return list.isEmpty() ? List.of() : list.get(0);
+    }
+
+    private static Array uuidArray(Connection con, Collection<TransactionId> transactionIds) throws SQLException {
+        return con.createArrayOf("uuid", transactionIds.stream().map(TransactionId::value).toArray());
+    }
+}
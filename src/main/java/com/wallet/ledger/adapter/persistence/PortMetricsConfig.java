@@ -0,0 +1,95 @@
+package com.wallet.ledger.adapter.persistence;
+
+import com.wallet.ledger.application.port.FindAccountPort;
+import com.wallet.ledger.application.port.FindUserAccountPort;
+import com.wallet.ledger.application.port.FindWalletPort;
+import com.wallet.ledger.application.port.LoadAccountBalancesPort;
+import com.wallet.ledger.application.port.LockAccountPort;
+import com.wallet.ledger.application.port.PersistPostingPort;
+import com.wallet.ledger.application.port.UpdateAccountBalancesPort;
+import com.wallet.ledger.application.service.RequestTrace;
+import com.wallet.ledger.application.service.RequestTrace.Phase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every port method of the persistence adapters: {@code ledger.port{port, method, exception}}. Adapters are
+ * injected by port interface only, so each is replaced by an interface proxy; the concrete classes stay metrics-free.
+ * {@code port=LockAccountPort, method=lockAllInOrder} is the time spent waiting for account locks in the database.
+ * Calls on the posting path are also added to the current request's {@link RequestTrace} phase.
+ */
+@Configuration
+public class PortMetricsConfig {
+
+    private static final String PORT_PACKAGE = LockAccountPort.class.getPackageName();
+
+    private static final Map<Class<?>, Phase> PHASES = Map.of(
+            FindUserAccountPort.class, Phase.WALLET_RESOLUTION,
+            FindWalletPort.class, Phase.WALLET_RESOLUTION,
+            FindAccountPort.class, Phase.WALLET_RESOLUTION,
+            LockAccountPort.class, Phase.LOCK_WAIT,
+            LoadAccountBalancesPort.class, Phase.BALANCE_LOAD,
+            PersistPostingPort.class, Phase.ENTRY_INSERT,
+            UpdateAccountBalancesPort.class, Phase.ENTRY_INSERT);
+
+    @Bean
+    static BeanPostProcessor portMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!bean.getClass().getPackageName().equals(PortMetricsConfig.class.getPackageName())) return bean;
+                Class<?>[] ports = Arrays.stream(ClassUtils.getAllInterfaces(bean))
+                        .filter(i -> i.getPackageName().equals(PORT_PACKAGE))
+                        .toArray(Class<?>[]::new);
+                if (ports.length == 0) return bean;
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                proxyFactory.setInterfaces(ports);
+                proxyFactory.addAdvice(timing(meterRegistry));
+                return proxyFactory.getProxy(bean.getClass().getClassLoader());
+            }
+        };
+    }
+
+    private static MethodInterceptor timing(ObjectProvider<MeterRegistry> meterRegistry) {
+        // Registered once per (method, exception); a registry lookup per call would build tags and ids every time.
+        Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+        return invocation -> {
+            Method method = invocation.getMethod();
+            long start = System.nanoTime();
+            String exception = "none";
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                exception = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                Phase phase = PHASES.get(method.getDeclaringClass());
+                if (phase != null) RequestTrace.add(phase, elapsed);
+                timers.computeIfAbsent(new TimerKey(method, exception), key -> Timer.builder("ledger.port")
+                                .description("Persistence port call latency")
+                                .tag("port", key.method().getDeclaringClass().getSimpleName())
+                                .tag("method", key.method().getName())
+                                .tag("exception", key.exception())
+                                .register(meterRegistry.getObject()))
+                        .record(elapsed, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    private record TimerKey(Method method, String exception) {
+    }
+}
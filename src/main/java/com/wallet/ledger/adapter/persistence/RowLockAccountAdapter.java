@@ -0,0 +1,54 @@
+package com.wallet.ledger.adapter.persistence;
+
+import com.wallet.ledger.application.port.LockAccountPort;
+import com.wallet.ledger.domain.valueobject.AccountId;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * ROW locking mode: row locks on account in account_id order (the sort runs below the lock step, so rows are
+ * locked in that order). FOR NO KEY UPDATE (not FOR UPDATE) so that ledger_entry inserts by other transactions,
+ * whose FK check takes FOR KEY SHARE on the account row, are not blocked by the lock holder. lock_timeout is set
+ * transaction-locally by the same statement (a materialized CTE joined below the lock step, so it applies before
+ * the first row is locked) and stays in force for the rest of the transaction. Also verifies that every account exists.
+ */
+@Component
+@ConditionalOnProperty(name = "ledger.locking.mode", havingValue = "ROW", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RowLockAccountAdapter implements LockAccountPort {
+
+    private static final Logger log = LoggerFactory.getLogger(RowLockAccountAdapter.class);
+    private static final String LOCK_ACCOUNTS_SQL = """
+            WITH timeout AS MATERIALIZED (SELECT set_config('lock_timeout', ?, true))
+            SELECT a.account_id FROM account a, timeout
+            WHERE a.account_id = ANY(?)
+            ORDER BY a.account_id
+            FOR NO KEY UPDATE OF a
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void lockAllInOrder(Collection<AccountId> accountIds, Duration lockTimeout) {
+        if (accountIds.isEmpty()) return;
+        Object[] ids = accountIds.stream().map(AccountId::value).distinct().toArray();
+        List<UUID> locked = jdbcTemplate.query(LOCK_ACCOUNTS_SQL, ps -> {
+                    ps.setString(1, String.valueOf(lockTimeout.toMillis()));
+                    ps.setArray(2, ps.getConnection().createArrayOf("uuid", ids));
+                },
+                (rs, rowNum) -> UUID.fromString(rs.getString("account_id")));
+        if (locked.size() != ids.length) {
+            throw new IllegalArgumentException("Account not found among " + accountIds.stream().map(AccountId::value).toList());
+        }
+        log.debug("Row-locked accounts count={}", locked.size());
+    }
+}
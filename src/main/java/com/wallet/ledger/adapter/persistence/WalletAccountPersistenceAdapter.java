@@ -9,19 +9,25 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
 public class WalletAccountPersistenceAdapter implements SaveWalletPort, SaveAccountPort, FindWalletPort, FindAccountPort,
-        LockAccountPort, FindTransactionsPort, FindTransactionByReferencePort {
+        FindUserAccountPort, FindTransactionsPort, FindTransactionByReferencePort {
 
     private static final Logger log = LoggerFactory.getLogger(WalletAccountPersistenceAdapter.class);
     private final JdbcTemplate jdbcTemplate;
@@ -41,9 +47,38 @@ public class WalletAccountPersistenceAdapter implements SaveWalletPort, SaveAcco
                 .accountType(AccountType.valueOf(rs.getString("account_type")))
                 .walletId(walletIdStr != null ? WalletId.of(UUID.fromString(walletIdStr)) : null)
                 .status(AccountStatus.valueOf(rs.getString("status")))
+                .shardIndex(rs.getInt("shard_index"))
                 .build();
     };
 
+    private static final String USER_ACCOUNT_SQL = """
+            SELECT w.user_id, w.wallet_id, w.status, w.currency, a.account_id
+            FROM wallet w
+            JOIN account a ON a.wallet_id = w.wallet_id AND a.account_type = 'USER_WALLET_ACCOUNT'
+            """;
+
+    private static final String INSERT_WALLETS_SQL = """
+            INSERT INTO wallet (wallet_id, user_id, status, currency, created_at)
+            SELECT * FROM unnest(?::uuid[], ?::varchar[], ?::varchar[], ?::varchar[], ?::timestamptz[])
+            ON CONFLICT (user_id) DO NOTHING
+            RETURNING user_id
+            """;
+    private static final String INSERT_ACCOUNTS_SQL = """
+            INSERT INTO account (account_id, account_type, wallet_id, status, shard_index)
+            SELECT * FROM unnest(?::uuid[], ?::varchar[], ?::uuid[], ?::varchar[], ?::int4[])
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String TRANSACTION_COLUMNS =
+            "SELECT txn_id, txn_type, status, reference_id, created_at, service_bundle_id, provisioning_reference FROM transaction";
+
+    private static final RowMapper<UserAccount> USER_ACCOUNT_ROW_MAPPER = (rs, rowNum) -> new UserAccount(
+            rs.getString("user_id"),
+            WalletId.of(UUID.fromString(rs.getString("wallet_id"))),
+            AccountId.of(UUID.fromString(rs.getString("account_id"))),
+            WalletStatus.valueOf(rs.getString("status")),
+            rs.getString("currency"));
+
     private static final RowMapper<Transaction> TRANSACTION_ROW_MAPPER = (rs, rowNum) -> Transaction.builder()
             .transactionId(TransactionId.of(UUID.fromString(rs.getString("txn_id"))))
             .transactionType(TransactionType.valueOf(rs.getString("txn_type")))
@@ -67,14 +102,44 @@ public class WalletAccountPersistenceAdapter implements SaveWalletPort, SaveAcco
     @Override
     public Account save(Account account) {
         jdbcTemplate.update(
-                "INSERT INTO account (account_id, account_type, wallet_id, status) VALUES (?, ?, ?, ?)",
+                "INSERT INTO account (account_id, account_type, wallet_id, status, shard_index) VALUES (?, ?, ?, ?, ?)",
                 account.getAccountId().value(), account.getAccountType().name(),
                 account.getWalletId() != null ? account.getWalletId().value() : null,
-                account.getStatus().name());
+                account.getStatus().name(), account.getShardIndex());
         log.debug("Saved account accountId={} type={}", account.getAccountId().value(), account.getAccountType());
         return account;
     }
 
+    @Override
+    public Set<String> saveWallets(List<Wallet> wallets) {
+        Set<String> inserted = new HashSet<>();
+        if (wallets.isEmpty()) return inserted;
+        jdbcTemplate.query(INSERT_WALLETS_SQL, ps -> {
+            var con = ps.getConnection();
+            ps.setArray(1, con.createArrayOf("uuid", wallets.stream().map(w -> w.getWalletId().value()).toArray()));
+            ps.setArray(2, con.createArrayOf("varchar", wallets.stream().map(Wallet::getUserId).toArray()));
+            ps.setArray(3, con.createArrayOf("varchar", wallets.stream().map(w -> w.getStatus().name()).toArray()));
+            ps.setArray(4, con.createArrayOf("varchar", wallets.stream().map(Wallet::getCurrency).toArray()));
+            ps.setArray(5, con.createArrayOf("varchar", wallets.stream().map(w -> w.getCreatedAt().toString()).toArray()));
+        }, (RowCallbackHandler) rs -> inserted.add(rs.getString("user_id")));
+        log.debug("Saved wallets requested={} inserted={}", wallets.size(), inserted.size());
+        return inserted;
+    }
+
+    @Override
+    public void saveAccounts(List<Account> accounts) {
+        if (accounts.isEmpty()) return;
+        jdbcTemplate.update(INSERT_ACCOUNTS_SQL, ps -> {
+            var con = ps.getConnection();
+            ps.setArray(1, con.createArrayOf("uuid", accounts.stream().map(a -> a.getAccountId().value()).toArray()));
+            ps.setArray(2, con.createArrayOf("varchar", accounts.stream().map(a -> a.getAccountType().name()).toArray()));
+            ps.setArray(3, con.createArrayOf("uuid", accounts.stream().map(a -> a.getWalletId() != null ? a.getWalletId().value() : null).toArray()));
+            ps.setArray(4, con.createArrayOf("varchar", accounts.stream().map(a -> a.getStatus().name()).toArray()));
+            ps.setArray(5, con.createArrayOf("int4", accounts.stream().map(Account::getShardIndex).toArray()));
+        });
+        log.debug("Saved accounts count={}", accounts.size());
+    }
+
     @Override
     public Optional<Wallet> findById(WalletId walletId) {
         List<Wallet> list = jdbcTemplate.query(
@@ -91,49 +156,100 @@ public class WalletAccountPersistenceAdapter implements SaveWalletPort, SaveAcco
         return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
     }
 
+    @Override
+    public Set<String> findExistingUserIds(Collection<String> userIds) {
+        Set<String> existing = new HashSet<>();
+        if (userIds.isEmpty()) return existing;
+        jdbcTemplate.query("SELECT user_id FROM wallet WHERE user_id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", userIds.toArray())),
+                (RowCallbackHandler) rs -> existing.add(rs.getString("user_id")));
+        return existing;
+    }
+
     @Override
     public Optional<Account> findByWalletIdAndType(WalletId walletId, AccountType accountType) {
         List<Account> list = jdbcTemplate.query(
-                "SELECT account_id, account_type, wallet_id, status FROM account WHERE wallet_id = ? AND account_type = ?",
+                "SELECT account_id, account_type, wallet_id, status, shard_index FROM account WHERE wallet_id = ? AND account_type = ?",
                 ACCOUNT_ROW_MAPPER, walletId.value(), accountType.name());
         return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
     }
 
     @Override
-    public Optional<Account> findSystemAccountByType(AccountType accountType) {
-        List<Account> list = jdbcTemplate.query(
-                "SELECT account_id, account_type, wallet_id, status FROM account WHERE wallet_id IS NULL AND account_type = ?",
-                ACCOUNT_ROW_MAPPER, accountType.name());
+    public Optional<UserAccount> findUserAccount(String userId) {
+        List<UserAccount> list = jdbcTemplate.query(USER_ACCOUNT_SQL + "WHERE w.user_id = ?", USER_ACCOUNT_ROW_MAPPER, userId);
         return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
     }
 
     @Override
-    public Optional<Account> lockForUpdate(AccountId accountId) {
-        List<Account> list = jdbcTemplate.query(
-                "SELECT account_id, account_type, wallet_id, status FROM account WHERE account_id = ? FOR UPDATE",
-                ACCOUNT_ROW_MAPPER, accountId.value());
-        if (!list.isEmpty()) log.debug("Locked account accountId={}", accountId.value());
-        return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
+    public Map<String, UserAccount> findUserAccounts(Collection<String> userIds) {
+        Map<String, UserAccount> map = new HashMap<>();
+        if (userIds.isEmpty()) return map;
+        jdbcTemplate.query(USER_ACCOUNT_SQL + "WHERE w.user_id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", userIds.toArray())),
+                (RowCallbackHandler) rs -> {
+                    UserAccount account = USER_ACCOUNT_ROW_MAPPER.mapRow(rs, 0);
+                    map.put(account.userId(), account);
+                });
+        return map;
+    }
+
+    @Override
+    public List<Account> findSystemAccountShards(AccountType accountType) {
+        return jdbcTemplate.query(
+                "SELECT account_id, account_type, wallet_id, status, shard_index FROM account WHERE wallet_id IS NULL AND account_type = ? ORDER BY shard_index",
+                ACCOUNT_ROW_MAPPER, accountType.name());
+    }
+
+    @Override
+    public Map<AccountId, Account> findByIds(Collection<AccountId> accountIds) {
+        Map<AccountId, Account> map = new HashMap<>();
+        if (accountIds.isEmpty()) return map;
+        jdbcTemplate.query("SELECT account_id, account_type, wallet_id, status, shard_index FROM account WHERE account_id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", accountIds.stream().map(AccountId::value).toArray())),
+                (RowCallbackHandler) rs -> {
+                    Account account = ACCOUNT_ROW_MAPPER.mapRow(rs, 0);
+                    map.put(account.getAccountId(), account);
+                });
+        return map;
     }
 
     @Override
     public List<Transaction> findByAccountId(AccountId accountId) {
         return jdbcTemplate.query("""
-                        SELECT DISTINCT t.txn_id, t.txn_type, t.status, t.reference_id, t.created_at, t.service_bundle_id, t.provisioning_reference
-                        FROM transaction t INNER JOIN ledger_entry e ON e.txn_id = t.txn_id
-                        WHERE e.account_id = ? ORDER BY t.created_at DESC
+                        SELECT t.txn_id, t.txn_type, t.status, t.reference_id, t.created_at, t.service_bundle_id, t.provisioning_reference
+                        FROM transaction t
+                        INNER JOIN (SELECT txn_id, MAX(account_seq) AS account_seq FROM ledger_entry WHERE account_id = ? GROUP BY txn_id) e
+                            ON e.txn_id = t.txn_id
+                        ORDER BY e.account_seq DESC
                         """,
                 TRANSACTION_ROW_MAPPER, accountId.value());
     }
 
+    @Override
+    public Optional<Transaction> findById(TransactionId transactionId) {
+        List<Transaction> list = jdbcTemplate.query(TRANSACTION_COLUMNS + " WHERE txn_id = ?", TRANSACTION_ROW_MAPPER, transactionId.value());
+        return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
+    }
+
     @Override
     public Optional<Transaction> findByReferenceId(String referenceId) {
-        List<Transaction> list = jdbcTemplate.query(
-                "SELECT txn_id, txn_type, status, reference_id, created_at, service_bundle_id, provisioning_reference FROM transaction WHERE reference_id = ?",
-                TRANSACTION_ROW_MAPPER, referenceId);
+        List<Transaction> list = jdbcTemplate.query(TRANSACTION_COLUMNS + " WHERE reference_id = ?", TRANSACTION_ROW_MAPPER, referenceId);
         return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
     }
 
+    @Override
+    public Map<String, Transaction> findByReferenceIds(Collection<String> referenceIds) {
+        Map<String, Transaction> map = new HashMap<>();
+        if (referenceIds.isEmpty()) return map;
+        jdbcTemplate.query(TRANSACTION_COLUMNS + " WHERE reference_id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", referenceIds.toArray())),
+                (RowCallbackHandler) rs -> {
+                    Transaction txn = TRANSACTION_ROW_MAPPER.mapRow(rs, 0);
+                    map.put(txn.getReferenceId(), txn);
+                });
+        return map;
+    }
+
     private static Instant toInstant(java.sql.Timestamp ts) {
         return ts == null ? null : ts.toInstant();
     }
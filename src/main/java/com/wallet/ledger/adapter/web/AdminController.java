@@ -0,0 +1,86 @@
+package com.wallet.ledger.adapter.web;
+
+import com.wallet.ledger.adapter.web.dto.HotAccountResponse;
+import com.wallet.ledger.adapter.web.dto.SlowRequestResponse;
+import com.wallet.ledger.application.service.FlightRecorder;
+import com.wallet.ledger.application.service.HotAccountProfiler;
+import com.wallet.ledger.application.service.RequestTrace;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin")
+@RequiredArgsConstructor
+@Tag(name = "Admin", description = "Operational views of this node")
+public class AdminController {
+
+    private final HotAccountProfiler hotAccountProfiler;
+    private final FlightRecorder flightRecorder;
+
+    @GetMapping(value = "/hot-accounts", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Hottest accounts on this node", description = "Accounts with the most lock units over the recent decay window, with posting rate, lock wait, lock hold and timeouts")
+    @ApiResponse(responseCode = "200", description = "Accounts, most locked first")
+    public ResponseEntity<List<HotAccountResponse>> hotAccounts(
+            @Parameter(description = "Number of accounts to return (1-500)")
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("GET /admin/hot-accounts limit={}", limit);
+        var list = hotAccountProfiler.topAccounts(limit).stream()
+                .map(h -> HotAccountResponse.builder()
+                        .accountId(h.accountId().value().toString())
+                        .accountType(h.account() == null ? null : h.account().getAccountType())
+                        .walletId(h.account() == null || h.account().isSystemAccount() ? null : h.account().getWalletId().value().toString())
+                        .shardIndex(h.account() == null ? 0 : h.account().getShardIndex())
+                        .locksPerSecond(h.locksPerSecond())
+                        .postingsPerSecond(h.postingsPerSecond())
+                        .lockTimeoutsPerSecond(h.lockTimeoutsPerSecond())
+                        .avgLockWaitMs(h.avgLockWaitMs())
+                        .avgLockHoldMs(h.avgLockHoldMs())
+                        .errorBound(h.errorBound())
+                        .build())
+                .toList();
+        return ResponseEntity.ok(list);
+    }
+
+    @GetMapping(value = "/slow-requests", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Slowest recent requests on this node", description = "Slowest requests per endpoint over the flight-recorder window, with time per phase (wallet resolution, lock wait, balance load, entry insert, commit, serialization) and SQL statement count")
+    @ApiResponse(responseCode = "200", description = "Requests, slowest first")
+    public ResponseEntity<List<SlowRequestResponse>> slowRequests(
+            @Parameter(description = "Only this endpoint, e.g. POST /api/v1/transfer")
+            @RequestParam(required = false) String endpoint,
+            @Parameter(description = "Number of requests to return (1-500)")
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("GET /admin/slow-requests endpoint={} limit={}", endpoint, limit);
+        var list = flightRecorder.slowest(endpoint, limit).stream()
+                .map(r -> {
+                    Map<RequestTrace.Phase, Double> phases = new EnumMap<>(RequestTrace.Phase.class);
+                    long attributed = 0;
+                    for (var phase : r.phaseNanos().entrySet()) {
+                        phases.put(phase.getKey(), phase.getValue() / 1e6);
+                        attributed += phase.getValue();
+                    }
+                    return SlowRequestResponse.builder()
+                            .endpoint(r.endpoint())
+                            .status(r.status())
+                            .startedAt(r.startedAt())
+                            .totalMs(r.elapsedNanos() / 1e6)
+                            .phasesMs(phases)
+                            .otherMs(Math.max(0, r.elapsedNanos() - attributed) / 1e6)
+                            .sqlCount(r.sqlCount())
+                            .build();
+                })
+                .toList();
+        return ResponseEntity.ok(list);
+    }
+}
@@ -0,0 +1,48 @@
+package com.wallet.ledger.adapter.web;
+
+import com.wallet.ledger.adapter.web.dto.AccountSequenceAuditResponse;
+import com.wallet.ledger.application.service.LedgerAuditService;
+import com.wallet.ledger.domain.valueobject.AccountId;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/audit")
+@RequiredArgsConstructor
+@Tag(name = "Audit", description = "Ledger integrity checks for auditors")
+public class AuditController {
+
+    private final LedgerAuditService ledgerAuditService;
+
+    @GetMapping(value = "/accounts/{accountId}/sequence", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Audit account entry sequence", description = "Reports gaps in the account's account_seq chain and whether account_balance matches the latest entry")
+    @ApiResponse(responseCode = "200", description = "Sequence audit", content = @Content(schema = @Schema(implementation = AccountSequenceAuditResponse.class)))
+    public ResponseEntity<AccountSequenceAuditResponse> auditSequence(
+            @Parameter(description = "Account UUID (user wallet account or system account shard)")
+            @PathVariable UUID accountId) {
+        log.info("GET /audit/accounts/{}/sequence", accountId);
+        var audit = ledgerAuditService.auditAccount(AccountId.of(accountId));
+        AccountSequenceAuditResponse body = AccountSequenceAuditResponse.builder()
+                .accountId(audit.accountId())
+                .ledgerSeq(audit.ledgerSeq())
+                .ledgerBalance(audit.ledgerBalance())
+                .balanceSeq(audit.balanceSeq())
+                .balance(audit.balance())
+                .gaps(audit.gaps().stream().map(g -> new AccountSequenceAuditResponse.Gap(g.fromSeq(), g.toSeq())).toList())
+                .consistent(audit.consistent())
+                .build();
+        return ResponseEntity.ok().body(body);
+    }
+}
@@ -0,0 +1,91 @@
+package com.wallet.ledger.adapter.web;
+
+import com.wallet.ledger.adapter.web.dto.DisbursementJobResponse;
+import com.wallet.ledger.application.port.DisbursementJob;
+import com.wallet.ledger.application.service.DisbursementJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/disbursements")
+@RequiredArgsConstructor
+@Tag(name = "Disbursements", description = "Bulk settlement-to-wallet payouts from CSV/NDJSON files")
+public class DisbursementController {
+
+    private final DisbursementJobService disbursementJobService;
+
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Submit disbursement file", description = "Streams the request body (CSV userId,amount,reference or NDJSON) to disk and starts a resumable job. Each line is a CASH_IN from settlement; reference is its idempotency key.")
+    @ApiResponse(responseCode = "202", description = "Job accepted", content = @Content(schema = @Schema(implementation = DisbursementJobResponse.class)))
+    public ResponseEntity<DisbursementJobResponse> submit(
+            @Parameter(description = "CSV or NDJSON") @RequestParam(defaultValue = "CSV") DisbursementJob.Format format,
+            InputStream body) throws IOException {
+        log.info("POST /disbursements format={}", format);
+        DisbursementJob job = disbursementJobService.submit(body, format);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).contentType(MediaType.APPLICATION_JSON).body(toResponse(job, null));
+    }
+
+    @GetMapping(value = "/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Disbursement job progress", description = "Checkpoint, per-result counts and throughput")
+    @ApiResponse(responseCode = "200", description = "Job", content = @Content(schema = @Schema(implementation = DisbursementJobResponse.class)))
+    public ResponseEntity<DisbursementJobResponse> get(@PathVariable UUID jobId) {
+        var status = disbursementJobService.getStatus(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Disbursement job not found: " + jobId));
+        return ResponseEntity.ok().body(toResponse(status.job(), status.linesPerSecond()));
+    }
+
+    @PostMapping(value = "/{jobId}/resume", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Resume disbursement job", description = "Re-runs a FAILED (or abandoned RUNNING) job from its checkpoint")
+    @ApiResponse(responseCode = "202", description = "Job re-queued", content = @Content(schema = @Schema(implementation = DisbursementJobResponse.class)))
+    public ResponseEntity<DisbursementJobResponse> resume(@PathVariable UUID jobId) {
+        log.info("POST /disbursements/{}/resume", jobId);
+        DisbursementJob job = disbursementJobService.resume(jobId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).contentType(MediaType.APPLICATION_JSON).body(toResponse(job, null));
+    }
+
+    @GetMapping(value = "/{jobId}/rejects", produces = "text/csv")
+    @Operation(summary = "Rejected lines", description = "CSV of lineNumber, reason, original line")
+    public ResponseEntity<Resource> rejects(@PathVariable UUID jobId) {
+        Path file = disbursementJobService.rejectsFile(jobId);
+        if (!Files.exists(file)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("text/csv")).body(new FileSystemResource(file));
+    }
+
+    private DisbursementJobResponse toResponse(DisbursementJob job, Double linesPerSecond) {
+        return DisbursementJobResponse.builder()
+                .jobId(job.jobId().toString())
+                .format(job.format().name())
+                .status(job.status().name())
+                .linesCommitted(job.linesCommitted())
+                .posted(job.posted())
+                .replayed(job.replayed())
+                .rejected(job.rejected())
+                .postedAmount(job.postedAmount())
+                .linesPerSecond(linesPerSecond)
+                .error(job.error())
+                .createdAt(job.createdAt())
+                .updatedAt(job.updatedAt())
+                .build();
+    }
+}
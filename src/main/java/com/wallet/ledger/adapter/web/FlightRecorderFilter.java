@@ -0,0 +1,70 @@
+package com.wallet.ledger.adapter.web;
+
+import com.wallet.ledger.application.service.FlightRecorder;
+import com.wallet.ledger.application.service.RequestTrace;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.io.IOException;
+
+/**
+ * Traces every /api request for {@link FlightRecorder}, keyed by method and path pattern. Requests that matched
+ * no handler (404) are not recorded.
+ */
+@Component
+@RequiredArgsConstructor
+public class FlightRecorderFilter extends OncePerRequestFilter {
+
+    private final FlightRecorder flightRecorder;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !flightRecorder.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTrace.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestTrace trace = RequestTrace.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (trace != null && pattern != null) {
+                flightRecorder.record(request.getMethod() + " " + pattern, response.getStatus(), trace);
+            }
+        }
+    }
+
+    /** Starts the SERIALIZATION phase right before a response body is written. */
+    @ControllerAdvice
+    static class SerializationStart implements ResponseBodyAdvice<Object> {
+
+        @Override
+        public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+
+        @Override
+        public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                      Class<? extends HttpMessageConverter<?>> converterType,
+                                      ServerHttpRequest request, ServerHttpResponse response) {
+            RequestTrace.serializing();
+            return body;
+        }
+    }
+}
@@ -5,11 +5,15 @@ import com.wallet.ledger.domain.exception.InsufficientBalanceException;
 import com.wallet.ledger.domain.exception.InvalidPostingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.sql.SQLTransientConnectionException;
 import java.util.Map;
 
 @RestControllerAdvice
@@ -23,6 +27,13 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
     }
 
+    /** An amount or balance sum that does not fit the ledger's fixed-point range (LedgerAmount overflow). */
+    @ExceptionHandler(ArithmeticException.class)
+    public ResponseEntity<Map<String, String>> handleArithmetic(ArithmeticException e) {
+        log.warn("Amount out of range: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Amount out of range"));
+    }
+
     @ExceptionHandler(InsufficientBalanceException.class)
     public ResponseEntity<Map<String, String>> handleInsufficientBalance(InsufficientBalanceException e) {
         log.warn("Insufficient balance: {}", e.getMessage());
@@ -35,6 +46,30 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(Map.of("error", e.getMessage()));
     }
 
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<Map<String, String>> handleConcurrencyFailure(ConcurrencyFailureException e) {
+        log.warn("Concurrency failure after retries: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "Account busy, retry later"));
+    }
+
+    @ExceptionHandler(CannotGetJdbcConnectionException.class)
+    public ResponseEntity<Map<String, String>> handleNoConnection(CannotGetJdbcConnectionException e) {
+        log.warn("No database connection: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "Server busy, retry later"));
+    }
+
+    /** The transaction manager could not get a connection (pool exhausted); anything else keeps the default handling. */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<Map<String, String>> handleCannotCreateTransaction(CannotCreateTransactionException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                log.warn("No database connection for transaction: {}", cause.getMessage());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "Server busy, retry later"));
+            }
+        }
+        throw e;
+    }
+
     @ExceptionHandler(DomainException.class)
     public ResponseEntity<Map<String, String>> handleDomain(DomainException e) {
         log.warn("Domain error: {}", e.getMessage());
@@ -0,0 +1,51 @@
+package com.wallet.ledger.adapter.web;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Maps the optional Idempotency-Key request header to the posting's reference id. The key is scoped by endpoint
+ * and initiating party ({@code transfer:<fromUserId>:<key>}), so two clients picking the same key never collide and
+ * a key can only replay the caller's own posting. A retried request with the same key replays the original
+ * transaction instead of posting again; without a key each request is new. Client references in request bodies
+ * (batch transfer items) are scoped the same way.
+ */
+final class IdempotencyKeys {
+
+    static final String HEADER = "Idempotency-Key";
+
+    /** transaction.reference_id is VARCHAR(255). */
+    private static final int MAX_LENGTH = 255;
+
+    /** Prefixes of references the ledger generates itself (settlement, disbursement, wallet creation). */
+    private static final List<String> RESERVED_PREFIXES = List.of("settle:", "disb:", "wallet-creation-", "wallet-onboarding-");
+
+    private IdempotencyKeys() {
+    }
+
+    /** scope is the endpoint and initiating party, e.g. "transfer:" + fromUserId. */
+    static String referenceId(String idempotencyKey, String scope, String generatedPrefix) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return generatedPrefix + UUID.randomUUID();
+        }
+        return scoped(HEADER, idempotencyKey.strip(), scope);
+    }
+
+    /** A required client reference from the request body, e.g. a batch item's referenceId. */
+    static String clientReference(String referenceId, String scope) {
+        String key = referenceId.strip();
+        RESERVED_PREFIXES.stream().filter(key::startsWith).findFirst().ifPresent(prefix -> {
+            throw new IllegalArgumentException("referenceId must not start with reserved prefix " + prefix);
+        });
+        return scoped("referenceId", key, scope);
+    }
+
+    private static String scoped(String name, String key, String scope) {
+        String referenceId = scope + ":" + key;
+        if (referenceId.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException(name + " must be at most " + (MAX_LENGTH - scope.length() - 1)
+                    + " characters for this request");
+        }
+        return referenceId;
+    }
+}
@@ -21,6 +21,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
@@ -130,16 +131,37 @@ public class ProvisioningController {
     @PostMapping(value = "/provisioning/execute", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Execute provisioning", description = "Debit user wallet and credit FEE account for the selected service bundle. Uses userId (unique per wallet).")
     @ApiResponse(responseCode = "200", description = "Provisioning transaction completed", content = @Content(schema = @Schema(implementation = TransactionResponse.class)))
-    public ResponseEntity<TransactionResponse> execute(@Valid @RequestBody ProvisioningExecuteRequest request) {
+    public ResponseEntity<TransactionResponse> execute(
+            @Valid @RequestBody ProvisioningExecuteRequest request,
+            @Parameter(description = "Client key; a retry with the same key returns the original transaction") @RequestHeader(value = IdempotencyKeys.HEADER, required = false) String idempotencyKey) {
         log.info("POST /provisioning/execute userId={} bundleId={}", request.getUserId(), request.getBundleId());
         var result = provisioningTransactionService.executeProvisioning(
                 request.getUserId(),
                 UUID.fromString(request.getBundleId()),
-                request.getProvisioningReference());
+                request.getProvisioningReference(),
+                IdempotencyKeys.referenceId(idempotencyKey, "provisioning:" + request.getUserId(), "provisioning-"));
         TransactionResponse body = toTransactionResponse(result.getTransaction());
         return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
+    @PostMapping(value = "/provisioning/execute/async", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Execute provisioning (async)", description = "Validates the bundle and queues the debit; poll GET /transactions/by-id/{txnId} for the outcome")
+    @ApiResponse(responseCode = "202", description = "Accepted as PENDING", content = @Content(schema = @Schema(implementation = TransactionResponse.class)))
+    public ResponseEntity<TransactionResponse> executeAsync(
+            @Valid @RequestBody ProvisioningExecuteRequest request,
+            @Parameter(description = "Client key; a retry with the same key returns the original transaction") @RequestHeader(value = IdempotencyKeys.HEADER, required = false) String idempotencyKey) {
+        log.info("POST /provisioning/execute/async userId={} bundleId={}", request.getUserId(), request.getBundleId());
+        Transaction txn = provisioningTransactionService.executeProvisioningAsync(
+                request.getUserId(),
+                UUID.fromString(request.getBundleId()),
+                request.getProvisioningReference(),
+                IdempotencyKeys.referenceId(idempotencyKey, "provisioning:" + request.getUserId(), "provisioning-"));
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/transactions/by-id/" + txn.getTransactionId().value()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(toTransactionResponse(txn));
+    }
+
     private ProvisioningServiceResponse toServiceResponse(ProvisioningService s) {
         return ProvisioningServiceResponse.builder()
                 .id(s.getId().toString())
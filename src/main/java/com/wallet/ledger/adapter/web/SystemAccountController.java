@@ -30,7 +30,7 @@ public class SystemAccountController {
     private final SystemAccountService systemAccountService;
 
     @GetMapping(value = "/balance", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Operation(summary = "List all system account balances", description = "Returns balance for each system account (SYSTEM_MASTER, SETTLEMENT, WITHDRAWAL_PENDING, FEE, REVERSAL)")
+    @Operation(summary = "List all system account balances", description = "Returns balance for each system account (SYSTEM_MASTER, SETTLEMENT, WITHDRAWAL_PENDING, FEE, REVERSAL), summed over its shards")
     @ApiResponse(responseCode = "200", description = "List of system account balances")
     public ResponseEntity<List<SystemAccountBalanceResponse>> getAllBalances() {
         log.info("GET /system-accounts/balance");
@@ -39,13 +39,14 @@ public class SystemAccountController {
                         .accountType(b.accountType())
                         .accountId(b.accountId())
                         .balance(b.balance())
+                        .shards(b.shards())
                         .build())
                 .toList();
         return ResponseEntity.ok().body(list);
     }
 
     @GetMapping(value = "/balance/{accountType}", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Operation(summary = "Get balance for one system account", description = "Returns balance for the given system account type")
+    @Operation(summary = "Get balance for one system account", description = "Returns balance for the given system account type, summed over its shards")
     @ApiResponse(responseCode = "200", description = "System account balance", content = @Content(schema = @Schema(implementation = SystemAccountBalanceResponse.class)))
     public ResponseEntity<SystemAccountBalanceResponse> getBalance(
             @Parameter(description = "Account type: SYSTEM_MASTER_ACCOUNT, SETTLEMENT_ACCOUNT, WITHDRAWAL_PENDING_ACCOUNT, FEE_ACCOUNT, REVERSAL_ACCOUNT")
@@ -57,6 +58,7 @@ public class SystemAccountController {
                 .accountType(detail.accountType())
                 .accountId(detail.accountId())
                 .balance(detail.balance())
+                .shards(detail.shards())
                 .build();
         return ResponseEntity.ok().body(body);
     }
@@ -1,11 +1,12 @@
 package com.wallet.ledger.adapter.web;
 
 import com.wallet.ledger.adapter.web.dto.*;
-import com.wallet.ledger.application.port.FindWalletPort;
 import com.wallet.ledger.application.service.*;
 import com.wallet.ledger.application.service.TransactionWithEntryDetail;
 import com.wallet.ledger.domain.entity.Transaction;
 import com.wallet.ledger.domain.entity.Wallet;
+import com.wallet.ledger.domain.valueobject.AccountId;
+import com.wallet.ledger.domain.valueobject.TransactionId;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,12 +16,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 @Slf4j
 @RestController
@@ -29,7 +32,6 @@ import java.util.UUID;
 @Tag(name = "Wallet Ledger", description = "Wallet onboarding, cash-in/out, transfer, balance, history, reversal")
 public class WalletController {
 
-    private final FindWalletPort findWalletPort;
     private final CreateWalletService createWalletService;
     private final CashInService cashInService;
     private final CashOutService cashOutService;
@@ -37,6 +39,8 @@ public class WalletController {
     private final BalanceService balanceService;
     private final TransactionHistoryService transactionHistoryService;
     private final ReversalService reversalService;
+    private final SplitPaymentService splitPaymentService;
+    private final AsyncPostingService asyncPostingService;
 
     @PostMapping(value = "/wallets", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Create wallet", description = "User onboarding: create wallet and USER_WALLET_ACCOUNT")
@@ -48,34 +52,75 @@ public class WalletController {
         return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
+    @PostMapping(value = "/wallets/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Bulk create wallets", description = "One existence check, multi-row wallet/account inserts and one opening-balance posting for all new wallets")
+    @ApiResponse(responseCode = "200", description = "Per-user created/skipped status", content = @Content(schema = @Schema(implementation = BatchCreateWalletResponse.class)))
+    public ResponseEntity<BatchCreateWalletResponse> createWallets(@Valid @RequestBody BatchCreateWalletRequest request) {
+        log.info("POST /wallets/batch size={}", request.getWallets().size());
+        var results = createWalletService.createWallets(request.getWallets().stream()
+                .map(w -> new CreateWalletService.NewWallet(w.getUserId(), w.getCurrency()))
+                .toList());
+        List<BatchCreateWalletResponse.Item> items = results.stream()
+                .map(r -> BatchCreateWalletResponse.Item.builder()
+                        .userId(r.userId())
+                        .status(r.created() ? "CREATED" : "SKIPPED")
+                        .wallet(r.created() ? toWalletResponse(r.wallet()) : null)
+                        .build())
+                .toList();
+        long created = results.stream().filter(CreateWalletService.WalletCreation::created).count();
+        BatchCreateWalletResponse body = BatchCreateWalletResponse.builder()
+                .created(created)
+                .skipped(results.size() - created)
+                .items(items)
+                .build();
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @PostMapping(value = "/cashin", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Cash-in", description = "DEBIT settlement_account, CREDIT user_wallet. Uses userId (unique per wallet).")
     @ApiResponse(responseCode = "200", description = "Cash-in completed", content = @Content(schema = @Schema(implementation = TransactionResponse.class)))
-    public ResponseEntity<TransactionResponse> cashIn(@Valid @RequestBody CashInRequest request) {
+    public ResponseEntity<TransactionResponse> cashIn(
+            @Valid @RequestBody CashInRequest request,
+            @Parameter(description = "Client key; a retry with the same key returns the original transaction") @RequestHeader(value = IdempotencyKeys.HEADER, required = false) String idempotencyKey) {
         log.info("POST /cashin userId={} amount={}", request.getUserId(), request.getAmount());
-        String ref = UUID.randomUUID().toString();
+        String ref = IdempotencyKeys.referenceId(idempotencyKey, "cashin:" + request.getUserId(), "");
         var result = cashInService.cashIn(request.getUserId(), request.getAmount(), ref);
         TransactionResponse body = toTransactionResponse(result.getTransaction());
         return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
+    @PostMapping(value = "/cashin/async", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Cash-in (async)", description = "Validates and queues the cash-in; poll GET /transactions/by-id/{txnId} for the outcome")
+    @ApiResponse(responseCode = "202", description = "Accepted as PENDING", content = @Content(schema = @Schema(implementation = TransactionResponse.class)))
+    public ResponseEntity<TransactionResponse> cashInAsync(
+            @Valid @RequestBody CashInRequest request,
+            @Parameter(description = "Client key; a retry with the same key returns the original transaction") @RequestHeader(value = IdempotencyKeys.HEADER, required = false) String idempotencyKey) {
+        log.info("POST /cashin/async userId={} amount={}", request.getUserId(), request.getAmount());
+        String ref = IdempotencyKeys.referenceId(idempotencyKey, "cashin:" + request.getUserId(), "");
+        return accepted(cashInService.cashInAsync(request.getUserId(), request.getAmount(), ref));
+    }
+
     @PostMapping(value = "/cashout", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Cash-out (reserve)", description = "Step 1: DEBIT user_wallet, CREDIT withdrawal_pending. Uses userId.")
     @ApiResponse(responseCode = "200", description = "Withdrawal reserved", content = @Content(schema = @Schema(implementation = TransactionResponse.class)))
-    public ResponseEntity<TransactionResponse> cashOut(@Valid @RequestBody CashOutRequest request) {
+    public ResponseEntity<TransactionResponse> cashOut(
+            @Valid @RequestBody CashOutRequest request,
+            @Parameter(description = "Client key; a retry with the same key returns the original transaction") @RequestHeader(value = IdempotencyKeys.HEADER, required = false) String idempotencyKey) {
         log.info("POST /cashout userId={} amount={}", request.getUserId(), request.getAmount());
-        String ref = UUID.randomUUID().toString();
+        String ref = IdempotencyKeys.referenceId(idempotencyKey, "cashout:" + request.getUserId(), "");
         var result = cashOutService.reserveWithdrawal(request.getUserId(), request.getAmount(), ref);
         TransactionResponse body = toTransactionResponse(result.getTransaction());
         return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @PostMapping(value = "/transfer", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Operation(summary = "P2P transfer", description = "Locks sender; DEBIT sender, CREDIT receiver. Uses fromUserId and toUserId.")
+    @Operation(summary = "P2P transfer", description = "DEBIT sender, CREDIT receiver; the posting engine locks every leg account in a fixed order. Uses fromUserId and toUserId.")
     @ApiResponse(responseCode = "200", description = "Transfer completed", content = @Content(schema = @Schema(implementation = TransactionResponse.class)))
-    public ResponseEntity<TransactionResponse> transfer(@Valid @RequestBody TransferRequest request) {
+    public ResponseEntity<TransactionResponse> transfer(
+            @Valid @RequestBody TransferRequest request,
+            @Parameter(description = "Client key; a retry with the same key returns the original transaction") @RequestHeader(value = IdempotencyKeys.HEADER, required = false) String idempotencyKey) {
         log.info("POST /transfer fromUserId={} toUserId={} amount={}", request.getFromUserId(), request.getToUserId(), request.getAmount());
-        String ref = UUID.randomUUID().toString();
+        String ref = IdempotencyKeys.referenceId(idempotencyKey, "transfer:" + request.getFromUserId(), "");
         var result = transferService.transfer(
                 request.getFromUserId(),
                 request.getToUserId(),
@@ -85,18 +130,106 @@ public class WalletController {
         return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
+    @PostMapping(value = "/transfer/async", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "P2P transfer (async)", description = "Validates and queues the transfer; the balance check happens when it is posted. Poll GET /transactions/by-id/{txnId}.")
+    @ApiResponse(responseCode = "202", description = "Accepted as PENDING", content = @Content(schema = @Schema(implementation = TransactionResponse.class)))
+    public ResponseEntity<TransactionResponse> transferAsync(
+            @Valid @RequestBody TransferRequest request,
+            @Parameter(description = "Client key; a retry with the same key returns the original transaction") @RequestHeader(value = IdempotencyKeys.HEADER, required = false) String idempotencyKey) {
+        log.info("POST /transfer/async fromUserId={} toUserId={} amount={}", request.getFromUserId(), request.getToUserId(), request.getAmount());
+        String ref = IdempotencyKeys.referenceId(idempotencyKey, "transfer:" + request.getFromUserId(), "");
+        return accepted(transferService.transferAsync(request.getFromUserId(), request.getToUserId(), request.getAmount(), ref));
+    }
+
+    @PostMapping(value = "/transfers/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Batch P2P transfers", description = "Many transfers in one commit: one wallet lookup, one ordered lock over all accounts, one set-based write. atomic=true makes it all-or-nothing.")
+    @ApiResponse(responseCode = "200", description = "Batch committed; see per-item status", content = @Content(schema = @Schema(implementation = BatchTransferResponse.class)))
+    @ApiResponse(responseCode = "422", description = "Atomic batch aborted; nothing written", content = @Content(schema = @Schema(implementation = BatchTransferResponse.class)))
+    public ResponseEntity<BatchTransferResponse> transferBatch(@Valid @RequestBody BatchTransferRequest request) {
+        log.info("POST /transfers/batch items={} atomic={}", request.getItems().size(), request.isAtomic());
+        var transfers = request.getItems().stream()
+                .map(i -> new TransferService.TransferItem(i.getFromUserId(), i.getToUserId(), i.getAmount(),
+                        IdempotencyKeys.clientReference(i.getReferenceId(), "transfers:" + i.getFromUserId())))
+                .toList();
+        var result = transferService.transferBatch(transfers, request.isAtomic());
+        List<BatchTransferResponse.Item> items = new ArrayList<>(transfers.size());
+        for (int i = 0; i < transfers.size(); i++) {
+            var item = result.items().get(i);
+            items.add(BatchTransferResponse.Item.builder()
+                    .index(i)
+                    .referenceId(request.getItems().get(i).getReferenceId())
+                    .status(item.status().name())
+                    .transaction(item.result() != null ? toTransactionResponse(item.result().getTransaction()) : null)
+                    .error(item.error())
+                    .build());
+        }
+        BatchTransferResponse body = BatchTransferResponse.builder()
+                .committed(result.committed())
+                .posted(result.count(BatchPostingResult.Status.POSTED))
+                .replayed(result.count(BatchPostingResult.Status.REPLAYED))
+                .rejected(result.count(BatchPostingResult.Status.REJECTED))
+                .items(items)
+                .build();
+        HttpStatus status = result.committed() ? HttpStatus.OK : HttpStatus.UNPROCESSABLE_ENTITY;
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @PostMapping(value = "/postings", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Multi-leg posting", description = "Split payment: debit payer wallet(s), credit several receivers and FEE_ACCOUNT in one transaction")
+    @ApiResponse(responseCode = "200", description = "Posting completed", content = @Content(schema = @Schema(implementation = TransactionResponse.class)))
+    public ResponseEntity<TransactionResponse> post(
+            @Valid @RequestBody PostingRequest request,
+            @Parameter(description = "Client key; a retry with the same key returns the original transaction") @RequestHeader(value = IdempotencyKeys.HEADER, required = false) String idempotencyKey) {
+        log.info("POST /postings legs={}", request.getLegs().size());
+        String ref = IdempotencyKeys.referenceId(idempotencyKey, "postings", "split-");
+        var legs = request.getLegs().stream()
+                .map(l -> new SplitPaymentService.Leg(l.getUserId(), l.getSystemAccount(), l.getDirection(), l.getAmount()))
+                .toList();
+        var result = splitPaymentService.post(legs, ref);
+        TransactionResponse body = toTransactionResponse(result.getTransaction());
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @GetMapping(value = "/balance/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Operation(summary = "Get balance", description = "Balance from latest ledger_entry.balance_after. userId is unique per wallet.")
+    @Operation(summary = "Get balance", description = "Balance from the balance cache (account_balance on miss). consistent=true bypasses the cache. userId is unique per wallet.")
     @ApiResponse(responseCode = "200", description = "Wallet balance", content = @Content(schema = @Schema(implementation = BalanceResponse.class)))
     public ResponseEntity<BalanceResponse> getBalance(
-            @Parameter(description = "User ID (unique per wallet)") @PathVariable String userId) {
-        log.info("GET /balance/{}", userId);
-        var balance = balanceService.getBalance(userId);
-        var wallet = findWalletPort.findByUserId(userId).orElseThrow(() -> new IllegalArgumentException("Wallet not found for userId: " + userId));
+            @Parameter(description = "User ID (unique per wallet)") @PathVariable String userId,
+            @Parameter(description = "Bypass the balance cache and read the committed balance") @RequestParam(defaultValue = "false") boolean consistent) {
+        log.info("GET /balance/{} consistent={}", userId, consistent);
+        var balance = balanceService.getBalance(userId, consistent);
         BalanceResponse body = BalanceResponse.builder()
                 .userId(userId)
-                .walletId(wallet.getWalletId().value().toString())
-                .balance(balance)
+                .walletId(balance.walletId().value().toString())
+                .balance(balance.balance())
+                .build();
+        return ResponseEntity.ok().body(body);
+    }
+
+    @PostMapping(value = "/balances/bulk", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Bulk balances", description = "Balances of many accounts in one call (reporting). Read from account_balance in chunks, one query per chunk.")
+    @ApiResponse(responseCode = "200", description = "Balances in request order")
+    public ResponseEntity<List<AccountBalanceResponse>> getBalancesInBulk(@Valid @RequestBody BulkBalanceRequest request) {
+        log.info("POST /balances/bulk accounts={}", request.getAccountIds().size());
+        var balances = balanceService.getBalances(request.getAccountIds().stream().map(AccountId::of).toList());
+        var body = balances.entrySet().stream()
+                .map(e -> AccountBalanceResponse.builder()
+                        .accountId(e.getKey().value().toString())
+                        .balance(e.getValue())
+                        .build())
+                .toList();
+        return ResponseEntity.ok().body(body);
+    }
+
+    @GetMapping(value = "/transactions/by-id/{txnId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Transaction status", description = "Any transaction by id; poll this after an async posting (PENDING until posted, then COMPLETED or FAILED with error)")
+    @ApiResponse(responseCode = "200", description = "Transaction", content = @Content(schema = @Schema(implementation = TransactionStatusResponse.class)))
+    public ResponseEntity<TransactionStatusResponse> getTransaction(@PathVariable String txnId) {
+        var status = asyncPostingService.findStatus(TransactionId.fromString(txnId))
+                .orElseThrow(() -> new IllegalArgumentException("Transaction not found: " + txnId));
+        TransactionStatusResponse body = TransactionStatusResponse.builder()
+                .transaction(toTransactionResponse(status.transaction()))
+                .error(status.error())
                 .build();
         return ResponseEntity.ok().body(body);
     }
@@ -117,9 +250,11 @@ public class WalletController {
     @PostMapping(value = "/reversal", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Reverse transaction", description = "Create compensating REVERSAL transaction")
     @ApiResponse(responseCode = "200", description = "Reversal completed", content = @Content(schema = @Schema(implementation = TransactionResponse.class)))
-    public ResponseEntity<TransactionResponse> reversal(@Valid @RequestBody ReversalRequest request) {
+    public ResponseEntity<TransactionResponse> reversal(
+            @Valid @RequestBody ReversalRequest request,
+            @Parameter(description = "Client key; a retry with the same key returns the original transaction") @RequestHeader(value = IdempotencyKeys.HEADER, required = false) String idempotencyKey) {
         log.info("POST /reversal originalRef={}", request.getOriginalReferenceId());
-        String ref = UUID.randomUUID().toString();
+        String ref = IdempotencyKeys.referenceId(idempotencyKey, "reversal:" + request.getOriginalReferenceId(), "");
         var result = reversalService.reverse(request.getOriginalReferenceId(), ref);
         TransactionResponse body = toTransactionResponse(result.getTransaction());
         return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
@@ -135,6 +270,14 @@ public class WalletController {
                 .build();
     }
 
+    /** 202 for an async posting, with Location pointing at its status. */
+    private ResponseEntity<TransactionResponse> accepted(Transaction t) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/transactions/by-id/" + t.getTransactionId().value()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(toTransactionResponse(t));
+    }
+
     private TransactionResponse toTransactionResponse(Transaction t) {
         return TransactionResponse.builder()
                 .transactionId(t.getTransactionId().value().toString())
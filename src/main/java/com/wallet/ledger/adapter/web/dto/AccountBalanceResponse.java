@@ -0,0 +1,23 @@
+package com.wallet.ledger.adapter.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Account balance")
+public class AccountBalanceResponse {
+
+    @Schema(description = "Account UUID")
+    private String accountId;
+
+    @Schema(description = "Current balance (0 for accounts with no entries)")
+    private BigDecimal balance;
+}
@@ -0,0 +1,47 @@
+package com.wallet.ledger.adapter.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Sequence audit of one account's ledger entry chain")
+public class AccountSequenceAuditResponse {
+
+    @Schema(description = "Account UUID")
+    private String accountId;
+
+    @Schema(description = "Highest account_seq in ledger_entry (0 when the account has no entries)")
+    private long ledgerSeq;
+
+    @Schema(description = "balance_after of the entry at ledgerSeq")
+    private BigDecimal ledgerBalance;
+
+    @Schema(description = "account_seq the materialized account_balance row points at")
+    private long balanceSeq;
+
+    @Schema(description = "Materialized balance from account_balance")
+    private BigDecimal balance;
+
+    @Schema(description = "Missing sequence ranges (inclusive); empty when the chain is gapless")
+    private List<Gap> gaps;
+
+    @Schema(description = "True when there are no gaps and account_balance matches the latest entry")
+    private boolean consistent;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Gap {
+        private long fromSeq;
+        private long toSeq;
+    }
+}
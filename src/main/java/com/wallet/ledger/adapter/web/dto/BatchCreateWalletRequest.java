@@ -0,0 +1,25 @@
+package com.wallet.ledger.adapter.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Bulk onboarding: wallets created in one commit")
+public class BatchCreateWalletRequest {
+
+    @NotEmpty(message = "wallets is required")
+    @Size(max = 1000, message = "at most 1000 wallets per batch")
+    @Schema(description = "Wallets to create; users that already have one are skipped", required = true)
+    private List<@Valid CreateWalletRequest> wallets;
+}
@@ -0,0 +1,38 @@
+package com.wallet.ledger.adapter.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Per-user outcome of bulk onboarding")
+public class BatchCreateWalletResponse {
+
+    private long created;
+    private long skipped;
+
+    @Schema(description = "One result per request item, in request order")
+    private List<Item> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        private String userId;
+
+        @Schema(description = "CREATED, or SKIPPED when the user already has a wallet (or is repeated in the request)")
+        private String status;
+
+        @Schema(description = "Present for CREATED")
+        private WalletResponse wallet;
+    }
+}
@@ -0,0 +1,57 @@
+package com.wallet.ledger.adapter.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Batch of P2P transfers posted in one commit")
+public class BatchTransferRequest {
+
+    @NotEmpty(message = "items is required")
+    @Size(max = 5000, message = "at most 5000 items per batch")
+    @Schema(description = "Transfers, evaluated in order against running balances", required = true)
+    private List<@Valid Item> items;
+
+    @Schema(description = "All-or-nothing: any rejected item aborts the whole batch", defaultValue = "false")
+    private boolean atomic;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        @NotNull(message = "fromUserId is required")
+        @Schema(description = "Sender user ID (unique per wallet)", required = true)
+        private String fromUserId;
+
+        @NotNull(message = "toUserId is required")
+        @Schema(description = "Receiver user ID (unique per wallet)", required = true)
+        private String toUserId;
+
+        @NotNull(message = "amount is required")
+        @DecimalMin(value = "0.01", message = "amount must be positive")
+        @Schema(description = "Amount to transfer", example = "25.00", required = true)
+        private BigDecimal amount;
+
+        @NotBlank(message = "referenceId is required")
+        @Size(max = 255, message = "referenceId must be at most 255 characters")
+        @Schema(description = "Client reference, unique per sender; a repeated reference replays the original. Stored as transfers:<fromUserId>:<referenceId>", required = true)
+        private String referenceId;
+    }
+}
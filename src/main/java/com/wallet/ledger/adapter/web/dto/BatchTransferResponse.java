@@ -0,0 +1,46 @@
+package com.wallet.ledger.adapter.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Per-item outcome of a batch transfer")
+public class BatchTransferResponse {
+
+    @Schema(description = "False when an atomic batch was aborted and nothing was written")
+    private boolean committed;
+
+    private long posted;
+    private long replayed;
+    private long rejected;
+
+    @Schema(description = "One result per request item, in request order")
+    private List<Item> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        private int index;
+        private String referenceId;
+
+        @Schema(description = "POSTED, REPLAYED, REJECTED or ABORTED")
+        private String status;
+
+        @Schema(description = "Present for POSTED and REPLAYED")
+        private TransactionResponse transaction;
+
+        @Schema(description = "Present for REJECTED")
+        private String error;
+    }
+}
@@ -0,0 +1,25 @@
+package com.wallet.ledger.adapter.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Bulk balance request (reporting)")
+public class BulkBalanceRequest {
+
+    @NotEmpty(message = "accountIds is required")
+    @Size(max = 50000, message = "at most 50000 accountIds per request")
+    @Schema(description = "Account UUIDs (wallet accounts or system account shards)", required = true)
+    private List<UUID> accountIds;
+}
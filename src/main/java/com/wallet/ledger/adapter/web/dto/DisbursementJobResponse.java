@@ -0,0 +1,44 @@
+package com.wallet.ledger.adapter.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Bulk disbursement job progress")
+public class DisbursementJobResponse {
+
+    private String jobId;
+    private String format;
+
+    @Schema(description = "PENDING, RUNNING, COMPLETED or FAILED")
+    private String status;
+
+    @Schema(description = "Checkpoint: lines of the file fully processed (resume point)")
+    private long linesCommitted;
+
+    private long posted;
+
+    @Schema(description = "Lines whose reference was already committed (e.g. re-run after a crash)")
+    private long replayed;
+
+    @Schema(description = "Lines written to the rejects file")
+    private long rejected;
+
+    private BigDecimal postedAmount;
+
+    @Schema(description = "Lines per second since the job (re)started; only while running on the answering node")
+    private Double linesPerSecond;
+
+    private String error;
+    private Instant createdAt;
+    private Instant updatedAt;
+}
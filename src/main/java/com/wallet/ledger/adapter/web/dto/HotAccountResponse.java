@@ -0,0 +1,46 @@
+package com.wallet.ledger.adapter.web.dto;
+
+import com.wallet.ledger.domain.valueobject.AccountType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Lock load on one account over the recent decay window (rates per second)")
+public class HotAccountResponse {
+
+    @Schema(description = "Account UUID")
+    private String accountId;
+
+    @Schema(description = "Account type; null if the account row was not found")
+    private AccountType accountType;
+
+    @Schema(description = "Wallet UUID; null for system accounts")
+    private String walletId;
+
+    @Schema(description = "Shard index (system accounts; 0 for user accounts)")
+    private int shardIndex;
+
+    @Schema(description = "Account lock units per second (one posting, or one group-commit / batch write)")
+    private double locksPerSecond;
+
+    @Schema(description = "Ledger entries written per second")
+    private double postingsPerSecond;
+
+    @Schema(description = "Lock waits per second that hit the lock timeout")
+    private double lockTimeoutsPerSecond;
+
+    @Schema(description = "Average wait for the account's locks (in-JVM stripes plus DB row locks), ms")
+    private double avgLockWaitMs;
+
+    @Schema(description = "Average time from lock grant to commit or rollback, ms")
+    private double avgLockHoldMs;
+
+    @Schema(description = "Space-saving overestimate bound on locksPerSecond; 0 when the account was tracked from its first lock")
+    private double errorBound;
+}
@@ -0,0 +1,51 @@
+package com.wallet.ledger.adapter.web.dto;
+
+import com.wallet.ledger.domain.valueobject.AccountType;
+import com.wallet.ledger.domain.valueobject.EntryDirection;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Multi-leg split payment posted as one transaction")
+public class PostingRequest {
+
+    @NotNull(message = "legs is required")
+    @Size(min = 2, max = 50, message = "a posting has 2 to 50 legs")
+    @Schema(description = "Balanced legs: total DEBIT must equal total CREDIT", required = true)
+    private List<@Valid Leg> legs;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Leg {
+
+        @Schema(description = "User wallet (set exactly one of userId or systemAccount)", example = "user-123")
+        private String userId;
+
+        @Schema(description = "System account type; only FEE_ACCOUNT (CREDIT) is accepted", example = "FEE_ACCOUNT")
+        private AccountType systemAccount;
+
+        @NotNull(message = "direction is required")
+        @Schema(description = "DEBIT or CREDIT", required = true)
+        private EntryDirection direction;
+
+        @NotNull(message = "amount is required")
+        @DecimalMin(value = "0.01", message = "amount must be positive")
+        @Schema(description = "Leg amount", example = "60.00", required = true)
+        private BigDecimal amount;
+    }
+}
@@ -0,0 +1,39 @@
+package com.wallet.ledger.adapter.web.dto;
+
+import com.wallet.ledger.application.service.RequestTrace;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One slow request with its phase breakdown")
+public class SlowRequestResponse {
+
+    @Schema(description = "HTTP method and path pattern, e.g. POST /api/v1/transfer")
+    private String endpoint;
+
+    @Schema(description = "HTTP response status")
+    private int status;
+
+    private Instant startedAt;
+
+    @Schema(description = "Total time in the filter chain, ms")
+    private double totalMs;
+
+    @Schema(description = "Time per phase, ms")
+    private Map<RequestTrace.Phase, Double> phasesMs;
+
+    @Schema(description = "totalMs not covered by a phase (validation, idempotency checks, group-commit or partition queueing, ...)")
+    private double otherMs;
+
+    @Schema(description = "SQL statements the request ran on its own thread")
+    private int sqlCount;
+}
@@ -18,9 +18,12 @@ public class SystemAccountBalanceResponse {
     @Schema(description = "Account type (e.g. SETTLEMENT_ACCOUNT)")
     private String accountType;
 
-    @Schema(description = "Account UUID")
+    @Schema(description = "Account UUID (primary shard)")
     private String accountId;
 
-    @Schema(description = "Current balance from ledger")
+    @Schema(description = "Current balance from ledger, summed over all shards")
     private BigDecimal balance;
+
+    @Schema(description = "Number of shards (sub-accounts) backing this system account")
+    private int shards;
 }
@@ -0,0 +1,21 @@
+package com.wallet.ledger.adapter.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Transaction with its posting status; used to poll async postings")
+public class TransactionStatusResponse {
+
+    @Schema(description = "PENDING (queued), COMPLETED, FAILED or REVERSED")
+    private TransactionResponse transaction;
+
+    @Schema(description = "Why an async posting FAILED (e.g. insufficient balance); null otherwise")
+    private String error;
+}
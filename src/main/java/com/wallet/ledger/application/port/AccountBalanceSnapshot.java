@@ -0,0 +1,16 @@
+package com.wallet.ledger.application.port;
+
+import com.wallet.ledger.domain.valueobject.AccountId;
+import com.wallet.ledger.domain.valueobject.EntryId;
+import com.wallet.ledger.domain.valueobject.LedgerAmount;
+
+/**
+ * Materialized balance of one account (account_balance row). Version 0 means the account has no row yet.
+ * lastAccountSeq is the account_seq of the entry the balance reflects (0 when the account has no entries).
+ */
+public record AccountBalanceSnapshot(AccountId accountId, LedgerAmount balance, long version, EntryId lastEntryId, long lastAccountSeq) {
+
+    public static AccountBalanceSnapshot empty(AccountId accountId) {
+        return new AccountBalanceSnapshot(accountId, LedgerAmount.ZERO, 0, null, 0);
+    }
+}
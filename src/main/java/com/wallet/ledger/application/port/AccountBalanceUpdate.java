@@ -0,0 +1,10 @@
+package com.wallet.ledger.application.port;
+
+import com.wallet.ledger.domain.valueobject.AccountId;
+import com.wallet.ledger.domain.valueobject.EntryId;
+import com.wallet.ledger.domain.valueobject.LedgerAmount;
+
+/** Compare-and-set of one account_balance row: applies only if the stored version still equals expectedVersion. */
+public record AccountBalanceUpdate(AccountId accountId, long expectedVersion, LedgerAmount balance, EntryId lastEntryId,
+                                   long lastAccountSeq) {
+}
@@ -0,0 +1,24 @@
+package com.wallet.ledger.application.port;
+
+import com.wallet.ledger.domain.valueobject.AccountId;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/** Port: integrity checks on an account's account_seq chain (for auditors). */
+public interface AuditLedgerSequencePort {
+
+    /** Missing account_seq ranges between 1 and the account's highest sequence, in ascending order. */
+    List<SequenceGap> findSequenceGaps(AccountId accountId);
+
+    /** Highest account_seq of the account and its balance_after; empty when the account has no entries. */
+    Optional<LatestAccountEntry> findLatestEntry(AccountId accountId);
+
+    /** Inclusive range of sequence numbers with no ledger entry. */
+    record SequenceGap(long fromSeq, long toSeq) {
+    }
+
+    record LatestAccountEntry(long accountSeq, BigDecimal balanceAfter) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.wallet.ledger.application.port;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One bulk disbursement run over a spooled file. linesCommitted is the resume checkpoint: all lines up to it are
+ * done (posted, replayed or rejected); counters cover exactly those lines.
+ */
+public record DisbursementJob(UUID jobId, Format format, String filePath, Status status, long linesCommitted, long posted,
+                              long replayed, long rejected, BigDecimal postedAmount, String error, Instant createdAt,
+                              Instant updatedAt) {
+
+    public enum Format {
+        /** userId,amount,reference per line; an optional header line starting with userId is skipped. */
+        CSV,
+        /** One {"userId":..,"amount":..,"reference":..} object per line. */
+        NDJSON
+    }
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,30 @@
+package com.wallet.ledger.application.port;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface DisbursementJobPort {
+
+    void create(DisbursementJob job);
+
+    Optional<DisbursementJob> findById(UUID jobId);
+
+    List<DisbursementJob> findByStatus(DisbursementJob.Status status);
+
+    /**
+     * Take a job for running: succeeds for PENDING or FAILED jobs, and for RUNNING jobs whose last heartbeat is older
+     * than staleBefore (their node died). At most one caller wins.
+     */
+    boolean claim(UUID jobId, Instant staleBefore);
+
+    /** Refresh updated_at of a running job so other nodes do not consider it stale. */
+    void heartbeat(UUID jobId);
+
+    /** Advance the checkpoint and add the counts of the lines it now covers. */
+    void checkpoint(UUID jobId, long linesCommitted, long posted, long replayed, long rejected, BigDecimal postedAmount);
+
+    void updateStatus(UUID jobId, DisbursementJob.Status status, String error);
+}
@@ -1,14 +1,22 @@
 package com.wallet.ledger.application.port;
 
 import com.wallet.ledger.domain.entity.Account;
+import com.wallet.ledger.domain.valueobject.AccountId;
 import com.wallet.ledger.domain.valueobject.AccountType;
 import com.wallet.ledger.domain.valueobject.WalletId;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface FindAccountPort {
 
     Optional<Account> findByWalletIdAndType(WalletId walletId, AccountType accountType);
 
-    Optional<Account> findSystemAccountByType(AccountType accountType);
+    /** All shards of a system account type, ordered by shard index (shard 0 is the primary account). */
+    List<Account> findSystemAccountShards(AccountType accountType);
+
+    /** Accounts by id (user and system); ids not found are absent from the map. */
+    Map<AccountId, Account> findByIds(Collection<AccountId> accountIds);
 }
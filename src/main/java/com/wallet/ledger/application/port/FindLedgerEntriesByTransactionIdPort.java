@@ -3,10 +3,15 @@ package com.wallet.ledger.application.port;
 import com.wallet.ledger.domain.entity.LedgerEntry;
 import com.wallet.ledger.domain.valueobject.TransactionId;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
-/** Port: find all ledger entries for a transaction (for reversal). */
+/** Port: find all ledger entries for a transaction (for reversal and idempotent replay). */
 public interface FindLedgerEntriesByTransactionIdPort {
 
     List<LedgerEntry> findByTransactionId(TransactionId transactionId);
+
+    /** Entries of many transactions in one query; transactions without entries are absent. */
+    Map<TransactionId, List<LedgerEntry>> findByTransactionIds(Collection<TransactionId> transactionIds);
 }
@@ -2,8 +2,13 @@ package com.wallet.ledger.application.port;
 
 import com.wallet.ledger.domain.entity.Transaction;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 public interface FindTransactionByReferencePort {
     Optional<Transaction> findByReferenceId(String referenceId);
+
+    /** Committed transactions among the given reference ids, keyed by reference id, in one lookup. */
+    Map<String, Transaction> findByReferenceIds(Collection<String> referenceIds);
 }
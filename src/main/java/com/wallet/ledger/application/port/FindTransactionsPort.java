@@ -2,9 +2,13 @@ package com.wallet.ledger.application.port;
 
 import com.wallet.ledger.domain.entity.Transaction;
 import com.wallet.ledger.domain.valueobject.AccountId;
+import com.wallet.ledger.domain.valueobject.TransactionId;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface FindTransactionsPort {
     List<Transaction> findByAccountId(AccountId accountId);
+
+    Optional<Transaction> findById(TransactionId transactionId);
 }
@@ -0,0 +1,14 @@
+package com.wallet.ledger.application.port;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+public interface FindUserAccountPort {
+
+    /** Wallet and USER_WALLET_ACCOUNT of a user in one lookup; empty if either does not exist. */
+    Optional<UserAccount> findUserAccount(String userId);
+
+    /** Wallets and accounts of many users in one lookup, keyed by userId; users without a wallet are absent. */
+    Map<String, UserAccount> findUserAccounts(Collection<String> userIds);
+}
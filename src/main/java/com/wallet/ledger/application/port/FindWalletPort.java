@@ -3,11 +3,16 @@ package com.wallet.ledger.application.port;
 import com.wallet.ledger.domain.entity.Wallet;
 import com.wallet.ledger.domain.valueobject.WalletId;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 public interface FindWalletPort {
     Optional<Wallet> findById(WalletId walletId);
 
     /** Find wallet by userId (unique). Primary key for transactional APIs. */
     Optional<Wallet> findByUserId(String userId);
+
+    /** The subset of userIds that already have a wallet, in one query. */
+    Set<String> findExistingUserIds(Collection<String> userIds);
 }
@@ -3,11 +3,21 @@ package com.wallet.ledger.application.port;
 import com.wallet.ledger.domain.valueobject.AccountId;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
-/** Port: load current balance (from latest ledger_entry.balance_after) for given accounts. */
+/** Port: load current balance (from the materialized account_balance row) for given accounts, in one round trip. */
 public interface LoadAccountBalancesPort {
 
     Map<AccountId, BigDecimal> loadBalances(Set<AccountId> accountIds);
+
+    /** Balances with their version, for compare-and-set by the posting engine. Accounts without a row map to version 0. */
+    Map<AccountId, AccountBalanceSnapshot> loadSnapshots(Set<AccountId> accountIds);
+
+    /**
+     * Bulk read for reporting: any number of accounts, fetched in chunks of ledger.balances.bulk-chunk-size ids
+     * (one query per chunk). Accounts without a row map to zero.
+     */
+    Map<AccountId, BigDecimal> loadBalancesInBulk(Collection<AccountId> accountIds);
 }
@@ -1,10 +1,20 @@
 package com.wallet.ledger.application.port;
 
-import com.wallet.ledger.domain.entity.Account;
 import com.wallet.ledger.domain.valueobject.AccountId;
 
-import java.util.Optional;
+import java.time.Duration;
+import java.util.Collection;
 
+/**
+ * Port: per-account posting locks for the current transaction (held until commit/rollback). The implementation is
+ * chosen by ledger.locking.mode: ROW (row locks on account) or ADVISORY (pg_advisory_xact_lock).
+ */
 public interface LockAccountPort {
-    Optional<Account> lockForUpdate(AccountId accountId);
+
+    /**
+     * Lock all given accounts in one statement, always in the same global order so that two postings touching the
+     * same accounts cannot deadlock. Fails with a PessimisticLockingFailureException if a lock is not granted
+     * within lockTimeout.
+     */
+    void lockAllInOrder(Collection<AccountId> accountIds, Duration lockTimeout);
 }
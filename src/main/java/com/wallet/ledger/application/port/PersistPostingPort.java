@@ -9,4 +9,10 @@ import java.util.List;
 public interface PersistPostingPort {
 
     void persist(Transaction transaction, List<LedgerEntry> entries);
+
+    /**
+     * Persist the transactions and entries of one or many postings with a constant number of statements
+     * (not one per row). Runs in the caller's transaction; entries must belong to the given transactions.
+     */
+    void persistAll(List<Transaction> transactions, List<LedgerEntry> entries);
 }
@@ -2,6 +2,7 @@ package com.wallet.ledger.application.port;
 
 import com.wallet.ledger.domain.valueobject.AccountId;
 import com.wallet.ledger.domain.valueobject.EntryDirection;
+import com.wallet.ledger.domain.valueobject.LedgerAmount;
 import lombok.Builder;
 import lombok.Value;
 
@@ -14,9 +15,23 @@ public class PostingLeg {
 
     AccountId accountId;
     EntryDirection direction;
-    BigDecimal amount;
+    LedgerAmount amount;
 
     public AccountId getAccountId() { return accountId; }
     public EntryDirection getDirection() { return direction; }
-    public BigDecimal getAmount() { return amount; }
+    public LedgerAmount getAmount() { return amount; }
+
+    public static class PostingLegBuilder {
+
+        public PostingLegBuilder amount(LedgerAmount amount) {
+            this.amount = amount;
+            return this;
+        }
+
+        /** Converts once at the service boundary (HALF_UP to scale 4). */
+        public PostingLegBuilder amount(BigDecimal amount) {
+            this.amount = LedgerAmount.of(amount);
+            return this;
+        }
+    }
 }
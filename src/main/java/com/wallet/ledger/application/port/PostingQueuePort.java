@@ -0,0 +1,36 @@
+package com.wallet.ledger.application.port;
+
+import com.wallet.ledger.domain.entity.Transaction;
+import com.wallet.ledger.domain.valueobject.TransactionId;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Port: durable queue of accepted but not yet posted commands. Each queued command has a PENDING transaction row
+ * (same txn_id and reference_id) that the ledger write promotes to COMPLETED.
+ */
+public interface PostingQueuePort {
+
+    /** Inserts the PENDING transaction and the queued legs in one statement; a used reference id raises DuplicateKeyException. */
+    Transaction enqueue(PostingCommand command);
+
+    /** Leases up to limit available commands, oldest first; rows leased by other workers are skipped, not waited on. */
+    List<QueuedPosting> claim(int limit, Duration lease);
+
+    /** Drops queue rows of commands that have been posted. */
+    void remove(Collection<TransactionId> transactionIds);
+
+    /** Marks the transaction FAILED and keeps the queue row with the reason. */
+    void fail(TransactionId transactionId, String error);
+
+    /** Makes leased commands claimable again after the delay. */
+    void release(Collection<TransactionId> transactionIds, Duration delay);
+
+    Optional<String> findError(TransactionId transactionId);
+
+    /** Queued legs of a PENDING or FAILED async posting; empty once it has been posted. */
+    List<PostingLeg> findLegs(TransactionId transactionId);
+}
@@ -0,0 +1,16 @@
+package com.wallet.ledger.application.port;
+
+import java.util.Collection;
+
+/**
+ * Port: announce balance changes to other application nodes. Called once the posting transaction has committed;
+ * delivery may be batched and asynchronous.
+ */
+public interface PublishBalanceChangesPort {
+
+    /** Never blocks the committing thread on delivery; returns how many changes were dropped instead (queue full). */
+    int publish(Collection<AccountBalanceSnapshot> snapshots);
+
+    /** Identifies this node in announcements so it can ignore its own. */
+    String nodeId();
+}
@@ -0,0 +1,5 @@
+package com.wallet.ledger.application.port;
+
+/** A command accepted by an async endpoint and leased to a worker; attempts includes the current lease. */
+public record QueuedPosting(PostingCommand command, int attempts) {
+}
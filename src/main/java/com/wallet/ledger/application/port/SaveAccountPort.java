@@ -2,6 +2,11 @@ package com.wallet.ledger.application.port;
 
 import com.wallet.ledger.domain.entity.Account;
 
+import java.util.List;
+
 public interface SaveAccountPort {
     Account save(Account account);
+
+    /** Inserts accounts in one statement; existing account ids are left untouched. */
+    void saveAccounts(List<Account> accounts);
 }
@@ -2,6 +2,12 @@ package com.wallet.ledger.application.port;
 
 import com.wallet.ledger.domain.entity.Wallet;
 
+import java.util.List;
+import java.util.Set;
+
 public interface SaveWalletPort {
     Wallet save(Wallet wallet);
+
+    /** Inserts wallets in one statement, skipping userIds that already have one. Returns the userIds inserted. */
+    Set<String> saveWallets(List<Wallet> wallets);
 }
@@ -0,0 +1,13 @@
+package com.wallet.ledger.application.port;
+
+import java.util.List;
+
+/** Port: update materialized account balances in the same transaction as the ledger entries. */
+public interface UpdateAccountBalancesPort {
+
+    /**
+     * Apply all updates, or throw {@link org.springframework.dao.OptimisticLockingFailureException} if any row's
+     * version no longer matches (another transaction posted to the account first).
+     */
+    void compareAndSet(List<AccountBalanceUpdate> updates);
+}
@@ -0,0 +1,9 @@
+package com.wallet.ledger.application.port;
+
+import com.wallet.ledger.domain.valueobject.AccountId;
+import com.wallet.ledger.domain.valueobject.WalletId;
+import com.wallet.ledger.domain.valueobject.WalletStatus;
+
+/** A user's wallet and its USER_WALLET_ACCOUNT, resolved together from userId. */
+public record UserAccount(String userId, WalletId walletId, AccountId accountId, WalletStatus walletStatus, String currency) {
+}
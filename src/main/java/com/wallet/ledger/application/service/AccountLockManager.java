@@ -0,0 +1,129 @@
+package com.wallet.ledger.application.service;
+
+import com.wallet.ledger.domain.valueobject.AccountId;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped, fair in-JVM locks keyed by AccountId, taken before a posting borrows a JDBC connection. Requests that
+ * contend on one account queue here, holding no connection, instead of inside Postgres on the row lock. Stripes
+ * are acquired in ascending index order (deadlock-free) with one overall deadline. This only narrows contention
+ * on this node; the engine's row locks remain the correctness guarantee across nodes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountLockManager {
+
+    private final MeterRegistry meterRegistry;
+    private final HotAccountProfiler hotAccountProfiler;
+
+    @Value("${ledger.locking.jvm-stripes.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ledger.locking.jvm-stripes.stripes:1024}")
+    private int stripeCount;
+
+    @Value("${ledger.locking.jvm-stripes.wait-timeout-ms:2000}")
+    private long waitTimeoutMs;
+
+    private ReentrantLock[] stripes;
+    private Timer waitTimer;
+    private Counter timeouts;
+
+    @PostConstruct
+    void init() {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+        waitTimer = Timer.builder("ledger.account.lock.wait")
+                .description("Time spent waiting for in-JVM account lock stripes")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        timeouts = Counter.builder("ledger.account.lock.timeouts")
+                .description("In-JVM account lock waits that hit wait-timeout-ms")
+                .register(meterRegistry);
+        Gauge.builder("ledger.account.lock.queued", this, AccountLockManager::queuedThreads)
+                .description("Threads waiting on any account lock stripe")
+                .register(meterRegistry);
+        Gauge.builder("ledger.account.lock.queued.max", this, AccountLockManager::deepestQueue)
+                .description("Longest wait queue on a single account lock stripe")
+                .register(meterRegistry);
+        log.info("Account lock manager enabled={} stripes={} waitTimeoutMs={}", enabled, stripeCount, waitTimeoutMs);
+    }
+
+    /** Run work while holding the stripes of all given accounts. Throws AccountLockTimeoutException after wait-timeout-ms. */
+    public <T> T withLocks(Collection<AccountId> accountIds, Supplier<T> work) {
+        if (!enabled) return work.get();
+        int[] indexes = accountIds.stream().mapToInt(this::stripeOf).distinct().sorted().toArray();
+        int acquired = acquire(indexes, accountIds);
+        try {
+            return work.get();
+        } finally {
+            release(indexes, acquired);
+            hotAccountProfiler.clearQueued();
+        }
+    }
+
+    private int acquire(int[] indexes, Collection<AccountId> accountIds) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs);
+        int acquired = 0;
+        try {
+            for (int index : indexes) {
+                if (!stripes[index].tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    timeouts.increment();
+                    throw new AccountLockTimeoutException("Timed out after " + waitTimeoutMs + "ms waiting for account lock stripe " + index
+                            + " (queued=" + stripes[index].getQueueLength() + ")");
+                }
+                acquired++;
+            }
+            return acquired;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountLockTimeoutException("Interrupted while waiting for account locks");
+        } finally {
+            long waited = System.nanoTime() - start;
+            waitTimer.record(waited, TimeUnit.NANOSECONDS);
+            RequestTrace.add(RequestTrace.Phase.LOCK_WAIT, waited);
+            if (acquired < indexes.length) {
+                release(indexes, acquired);
+                hotAccountProfiler.onLockTimeout(accountIds, waited);
+            } else {
+                hotAccountProfiler.onQueued(waited);
+            }
+        }
+    }
+
+    private void release(int[] indexes, int acquired) {
+        for (int i = acquired - 1; i >= 0; i--) {
+            stripes[indexes[i]].unlock();
+        }
+    }
+
+    private int stripeOf(AccountId accountId) {
+        return Math.floorMod(accountId.value().hashCode() * 0x9E3779B9, stripeCount);
+    }
+
+    private double queuedThreads() {
+        return Arrays.stream(stripes).mapToInt(ReentrantLock::getQueueLength).sum();
+    }
+
+    private double deepestQueue() {
+        return Arrays.stream(stripes).mapToInt(ReentrantLock::getQueueLength).max().orElse(0);
+    }
+}
@@ -0,0 +1,11 @@
+package com.wallet.ledger.application.service;
+
+import org.springframework.dao.CannotAcquireLockException;
+
+/** An in-JVM account lock was not granted within the configured wait. Same family as a DB lock_timeout. */
+public class AccountLockTimeoutException extends CannotAcquireLockException {
+
+    public AccountLockTimeoutException(String message) {
+        super(message);
+    }
+}
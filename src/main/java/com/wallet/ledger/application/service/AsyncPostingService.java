@@ -0,0 +1,199 @@
+package com.wallet.ledger.application.service;
+
+import com.wallet.ledger.application.port.FindTransactionByReferencePort;
+import com.wallet.ledger.application.port.FindTransactionsPort;
+import com.wallet.ledger.application.port.PostingCommand;
+import com.wallet.ledger.application.port.PostingQueuePort;
+import com.wallet.ledger.application.port.QueuedPosting;
+import com.wallet.ledger.domain.entity.Transaction;
+import com.wallet.ledger.domain.valueobject.TransactionId;
+import com.wallet.ledger.domain.valueobject.TransactionStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Async posting: a request is validated, stored as a PENDING transaction with its legs (one statement) and answered
+ * with 202; workers drain the queue through {@link LedgerPostingEngine#postBatch}, many commands per lock and commit.
+ * Posting promotes the same transaction row to COMPLETED, so the txnId handed out on accept stays valid. Business
+ * rejections (e.g. insufficient balance) mark the transaction FAILED with the reason; transient failures put the
+ * commands back after retry-delay-ms, up to max-attempts. Queue rows are leased, so any node's workers may drain
+ * them and a dead node's lease simply expires.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AsyncPostingService {
+
+    private final PostingQueuePort postingQueuePort;
+    private final FindTransactionsPort findTransactionsPort;
+    private final FindTransactionByReferencePort findTransactionByReferencePort;
+    private final IdempotencyGuard idempotencyGuard;
+    private final LedgerPostingEngine ledgerPostingEngine;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ledger.async.workers:2}")
+    private int workers;
+
+    @Value("${ledger.async.batch-size:200}")
+    private int batchSize;
+
+    @Value("${ledger.async.poll-interval-ms:200}")
+    private long pollIntervalMs;
+
+    @Value("${ledger.async.lease-ms:30000}")
+    private long leaseMs;
+
+    @Value("${ledger.async.retry-delay-ms:1000}")
+    private long retryDelayMs;
+
+    @Value("${ledger.async.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /** Wakes an idle worker when this node accepts a command, instead of waiting for the next poll. */
+    private final Semaphore wakeUps = new Semaphore(0);
+    private ExecutorService workerPool;
+    private volatile boolean running = true;
+    private Counter accepted;
+    private Counter posted;
+    private Counter failed;
+    private Counter retried;
+
+    @PostConstruct
+    void init() {
+        accepted = postings("accepted");
+        posted = postings("posted");
+        failed = postings("failed");
+        retried = postings("retried");
+        workerPool = Executors.newFixedThreadPool(workers, ThreadFactories.named("ledger-async-posting", virtualThreads));
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::drain);
+        }
+        log.info("Async posting workers={} batchSize={} pollIntervalMs={} leaseMs={} maxAttempts={}",
+                workers, batchSize, pollIntervalMs, leaseMs, maxAttempts);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        workerPool.shutdownNow();
+    }
+
+    private Counter postings(String result) {
+        return Counter.builder("ledger.async.postings")
+                .description("Async postings by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the command and returns its PENDING transaction. A reference id that is already used returns that
+     * transaction instead (whatever its status), as the synchronous endpoints replay.
+     */
+    public Transaction submit(PostingCommand command) {
+        PostingBatch.validate(command);
+        try {
+            Transaction pending = postingQueuePort.enqueue(command);
+            accepted.increment();
+            wakeUps.release();
+            log.debug("Accepted async posting txnId={} type={} ref={}", command.getTransactionId().value(),
+                    command.getTransactionType(), command.getReferenceId());
+            return pending;
+        } catch (DuplicateKeyException e) {
+            Transaction existing = findTransactionByReferencePort.findByReferenceId(command.getReferenceId()).orElseThrow(() -> e);
+            return idempotencyGuard.replay(command, existing).getTransaction();
+        }
+    }
+
+    /** Any transaction by id; error is set for a FAILED async posting. */
+    public Optional<TransactionStatusView> findStatus(TransactionId transactionId) {
+        return findTransactionsPort.findById(transactionId).map(t -> new TransactionStatusView(t,
+                t.getStatus() == TransactionStatus.FAILED ? postingQueuePort.findError(transactionId).orElse(null) : null));
+    }
+
+    private void drain() {
+        while (running) {
+            try {
+                List<QueuedPosting> batch = postingQueuePort.claim(batchSize, Duration.ofMillis(leaseMs));
+                if (batch.isEmpty()) {
+                    wakeUps.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                post(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Async posting worker error: {}", e.getMessage());
+                sleepQuietly(pollIntervalMs);
+            }
+        }
+    }
+
+    private void post(List<QueuedPosting> batch) {
+        List<PostingCommand> commands = batch.stream().map(QueuedPosting::command).toList();
+        BatchPostingResult result;
+        try {
+            result = ledgerPostingEngine.postBatch(commands, false);
+        } catch (RuntimeException e) {
+            // Retries inside postBatch are exhausted (lock timeouts, serialization failures); try again later.
+            List<TransactionId> again = new ArrayList<>();
+            for (QueuedPosting queued : batch) {
+                if (queued.attempts() >= maxAttempts) {
+                    postingQueuePort.fail(queued.command().getTransactionId(), e.getMessage());
+                    failed.increment();
+                } else {
+                    again.add(queued.command().getTransactionId());
+                }
+            }
+            postingQueuePort.release(again, Duration.ofMillis(retryDelayMs));
+            retried.increment(again.size());
+            log.warn("Async batch of {} not posted, retrying {}: {}", batch.size(), again.size(), e.getMessage());
+            return;
+        }
+        List<TransactionId> done = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            BatchPostingResult.Item item = result.items().get(i);
+            TransactionId txnId = commands.get(i).getTransactionId();
+            if (item.status() == BatchPostingResult.Status.REJECTED) {
+                postingQueuePort.fail(txnId, item.error());
+                failed.increment();
+            } else {
+                // POSTED, or REPLAYED: an earlier lease committed it but did not get to remove the queue row.
+                done.add(txnId);
+            }
+        }
+        postingQueuePort.remove(done);
+        posted.increment(done.size());
+        log.debug("Async batch size={} posted={} rejected={}", commands.size(), done.size(), commands.size() - done.size());
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public record TransactionStatusView(Transaction transaction, String error) {
+    }
+}
@@ -0,0 +1,171 @@
+package com.wallet.ledger.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wallet.ledger.application.port.AccountBalanceSnapshot;
+import com.wallet.ledger.application.port.LoadAccountBalancesPort;
+import com.wallet.ledger.application.port.PublishBalanceChangesPort;
+import com.wallet.ledger.domain.valueobject.AccountId;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bounded, versioned cache of account balances for balance reads. Postings feed it only after their transaction
+ * commits, and announce the change so other nodes drop older versions. An entry only ever moves to a higher
+ * account_balance version, so a slow read-through can never overwrite a newer balance. Entries also expire a fixed
+ * time after they were written, which bounds how long a missed or dropped notification can leave a balance stale.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BalanceCache {
+
+    private final LoadAccountBalancesPort loadAccountBalancesPort;
+    private final PublishBalanceChangesPort publishBalanceChangesPort;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ledger.balance-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ledger.balance-cache.max-size:100000}")
+    private long maxSize;
+
+    @Value("${ledger.balance-cache.expire-after-write-ms:60000}")
+    private long expireAfterWriteMs;
+
+    private Cache<AccountId, Entry> cache;
+    private Counter hits;
+    private Counter misses;
+    private Counter bypasses;
+    private Counter staleReads;
+    private Counter staleInvalidations;
+    private Counter droppedNotifications;
+    private Timer notifyLag;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .build();
+        hits = requests("hit");
+        misses = requests("miss");
+        bypasses = requests("bypass");
+        staleReads = Counter.builder("ledger.balance.cache.stale")
+                .description("Cached balances found older than account_balance by a bypass read")
+                .tag("source", "read")
+                .register(meterRegistry);
+        staleInvalidations = Counter.builder("ledger.balance.cache.stale")
+                .description("Cached balances dropped because another node committed a newer version")
+                .tag("source", "remote")
+                .register(meterRegistry);
+        droppedNotifications = Counter.builder("ledger.balance.cache.notify.dropped")
+                .description("Balance changes not announced to other nodes because the notify queue was full")
+                .register(meterRegistry);
+        notifyLag = Timer.builder("ledger.balance.cache.notify.lag")
+                .description("Time from a remote posting to this node invalidating its cached balances")
+                .register(meterRegistry);
+        Gauge.builder("ledger.balance.cache.size", cache, Cache::estimatedSize).register(meterRegistry);
+        log.info("Balance cache enabled={} maxSize={} expireAfterWriteMs={}", enabled, maxSize, expireAfterWriteMs);
+    }
+
+    private Counter requests(String result) {
+        return Counter.builder("ledger.balance.cache.requests")
+                .description("Balance cache lookups by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /** Current balance of the account. bypass = read account_balance directly (the fresh value still refreshes the cache). */
+    public BigDecimal getBalance(AccountId accountId, boolean bypass) {
+        if (!enabled || bypass) {
+            bypasses.increment();
+            AccountBalanceSnapshot snapshot = load(accountId);
+            if (enabled) offer(snapshot, true);
+            return snapshot.balance().toBigDecimal();
+        }
+        Entry entry = cache.getIfPresent(accountId);
+        if (entry != null && entry.snapshot() != null) {
+            hits.increment();
+            return entry.snapshot().balance().toBigDecimal();
+        }
+        misses.increment();
+        AccountBalanceSnapshot snapshot = load(accountId);
+        offer(snapshot, false);
+        return snapshot.balance().toBigDecimal();
+    }
+
+    /**
+     * Called by the posting paths inside the posting transaction with the balances it wrote. After commit this
+     * node's cache is updated and other nodes are notified; neither ever sees uncommitted balances.
+     */
+    public void onPosted(Collection<AccountBalanceSnapshot> snapshots) {
+        if (!enabled || snapshots.isEmpty()) return;
+        List<AccountBalanceSnapshot> committed = List.copyOf(snapshots);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed(committed);
+                }
+            });
+        } else {
+            committed(committed);
+        }
+    }
+
+    private void committed(List<AccountBalanceSnapshot> snapshots) {
+        snapshots.forEach(snapshot -> offer(snapshot, false));
+        int dropped = publishBalanceChangesPort.publish(snapshots);
+        if (dropped > 0) droppedNotifications.increment(dropped);
+    }
+
+    /** Another node committed the given version: drop anything older and refuse older read-throughs from now on. */
+    public void invalidate(AccountId accountId, long version, long publishedAtMillis) {
+        cache.asMap().compute(accountId, (id, current) -> {
+            if (current != null && current.version() >= version) return current;
+            if (current != null && current.snapshot() != null) staleInvalidations.increment();
+            return new Entry(null, version);
+        });
+        notifyLag.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - publishedAtMillis)));
+    }
+
+    /** Drop everything, e.g. after notifications may have been missed. */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private AccountBalanceSnapshot load(AccountId accountId) {
+        return loadAccountBalancesPort.loadSnapshots(Set.of(accountId)).get(accountId);
+    }
+
+    private void offer(AccountBalanceSnapshot snapshot, boolean fromBypassRead) {
+        cache.asMap().merge(snapshot.accountId(), new Entry(snapshot, snapshot.version()), (current, offered) -> {
+            if (offered.version() > current.version()) {
+                if (fromBypassRead && current.snapshot() != null) staleReads.increment();
+                return offered;
+            }
+            if (offered.version() == current.version() && current.snapshot() == null) return offered;
+            return current;
+        });
+    }
+
+    /** snapshot == null marks a version known to exist elsewhere but not loaded here yet. */
+    private record Entry(AccountBalanceSnapshot snapshot, long version) {
+    }
+}
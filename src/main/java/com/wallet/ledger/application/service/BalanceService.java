@@ -1,34 +1,48 @@
 package com.wallet.ledger.application.service;
 
-import com.wallet.ledger.application.port.FindAccountPort;
-import com.wallet.ledger.application.port.FindWalletPort;
 import com.wallet.ledger.application.port.LoadAccountBalancesPort;
-import com.wallet.ledger.domain.valueobject.AccountType;
+import com.wallet.ledger.application.port.UserAccount;
+import com.wallet.ledger.domain.valueobject.AccountId;
+import com.wallet.ledger.domain.valueobject.WalletId;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.Set;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BalanceService {
 
-    private final FindWalletPort findWalletPort;
-    private final FindAccountPort findAccountPort;
+    private final UserAccountCache userAccountCache;
     private final LoadAccountBalancesPort loadAccountBalancesPort;
+    private final BalanceCache balanceCache;
 
-    public BigDecimal getBalance(String userId) {
-        log.debug("Balance enquiry userId={}", userId);
-        var wallet = findWalletPort.findByUserId(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Wallet not found for userId: " + userId));
-        var account = findAccountPort.findByWalletIdAndType(wallet.getWalletId(), AccountType.USER_WALLET_ACCOUNT)
-                .orElseThrow(() -> new IllegalArgumentException("Wallet account not found for userId: " + userId));
-        var balances = loadAccountBalancesPort.loadBalances(Set.of(account.getAccountId()));
-        BigDecimal balance = balances.getOrDefault(account.getAccountId(), BigDecimal.ZERO);
+    /**
+     * Wallet balance. Served from the balance cache unless bypassCache is set, in which case it is read from
+     * account_balance (read-your-writes across nodes).
+     */
+    public WalletBalance getBalance(String userId, boolean bypassCache) {
+        log.debug("Balance enquiry userId={} bypassCache={}", userId, bypassCache);
+        UserAccount account = userAccountCache.require(userId);
+        BigDecimal balance = balanceCache.getBalance(account.accountId(), bypassCache);
         log.trace("Balance userId={} balance={}", userId, balance);
-        return balance;
+        return new WalletBalance(account.walletId(), account.accountId(), balance);
+    }
+
+    /** Balances of many accounts at once (reporting), read in chunks by the port. Keeps the request order. */
+    public Map<AccountId, BigDecimal> getBalances(List<AccountId> accountIds) {
+        log.debug("Bulk balance enquiry accounts={}", accountIds.size());
+        Map<AccountId, BigDecimal> balances = loadAccountBalancesPort.loadBalancesInBulk(accountIds);
+        Map<AccountId, BigDecimal> ordered = new LinkedHashMap<>(balances.size() * 2);
+        accountIds.forEach(id -> ordered.put(id, balances.get(id)));
+        return ordered;
+    }
+
+    public record WalletBalance(WalletId walletId, AccountId accountId, BigDecimal balance) {
     }
 }
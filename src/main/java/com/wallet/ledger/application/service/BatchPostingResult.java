@@ -0,0 +1,46 @@
+package com.wallet.ledger.application.service;
+
+import com.wallet.ledger.application.port.PostingResult;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch of postings, one item per command in request order. committed is false when an atomic batch
+ * was aborted: then nothing was written and the items show which command was rejected.
+ */
+public record BatchPostingResult(boolean committed, List<Item> items) {
+
+    public enum Status {
+        /** Written by this batch. */
+        POSTED,
+        /** Reference id was already committed; result is the original transaction. */
+        REPLAYED,
+        /** Not written: invalid, insufficient balance or unknown party. */
+        REJECTED,
+        /** Valid, but not written because another item of an atomic batch was rejected. */
+        ABORTED
+    }
+
+    public record Item(Status status, PostingResult result, String error) {
+
+        public static Item posted(PostingResult result) {
+            return new Item(Status.POSTED, result, null);
+        }
+
+        public static Item replayed(PostingResult result) {
+            return new Item(Status.REPLAYED, result, null);
+        }
+
+        public static Item rejected(String error) {
+            return new Item(Status.REJECTED, null, error);
+        }
+
+        public static Item aborted() {
+            return new Item(Status.ABORTED, null, null);
+        }
+    }
+
+    public long count(Status status) {
+        return items.stream().filter(item -> item.status() == status).count();
+    }
+}
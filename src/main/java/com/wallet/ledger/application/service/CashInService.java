@@ -2,6 +2,7 @@ package com.wallet.ledger.application.service;
 
 import com.wallet.ledger.application.port.*;
 import com.wallet.ledger.domain.entity.Account;
+import com.wallet.ledger.domain.entity.Transaction;
 import com.wallet.ledger.domain.valueobject.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,28 +16,34 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CashInService {
 
-    private final FindWalletPort findWalletPort;
-    private final FindAccountPort findAccountPort;
+    private final UserAccountCache userAccountCache;
+    private final SystemAccountRegistry systemAccountRegistry;
     private final LedgerPostingEngine ledgerPostingEngine;
+    private final AsyncPostingService asyncPostingService;
 
     public PostingResult cashIn(String userId, BigDecimal amount, String referenceId) {
         log.debug("Cash-in userId={} amount={} referenceId={}", userId, amount, referenceId);
-        var wallet = findWalletPort.findByUserId(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Wallet not found for userId: " + userId));
-        Account settlement = findAccountPort.findSystemAccountByType(AccountType.SETTLEMENT_ACCOUNT)
-                .orElseThrow(() -> new IllegalStateException("Settlement account not found"));
-        Account userAccount = findAccountPort.findByWalletIdAndType(wallet.getWalletId(), AccountType.USER_WALLET_ACCOUNT)
-                .orElseThrow(() -> new IllegalArgumentException("User wallet account not found for userId: " + userId));
-        PostingCommand cmd = PostingCommand.builder()
+        PostingResult result = ledgerPostingEngine.post(command(userId, amount, referenceId));
+        log.info("Cash-in completed userId={} txnId={}", userId, result.getTransaction().getTransactionId().value());
+        return result;
+    }
+
+    /** Validates and queues the cash-in; the returned transaction is PENDING until a worker posts it. */
+    public Transaction cashInAsync(String userId, BigDecimal amount, String referenceId) {
+        log.debug("Async cash-in userId={} amount={} referenceId={}", userId, amount, referenceId);
+        return asyncPostingService.submit(command(userId, amount, referenceId));
+    }
+
+    private PostingCommand command(String userId, BigDecimal amount, String referenceId) {
+        UserAccount userAccount = userAccountCache.require(userId);
+        Account settlement = systemAccountRegistry.pickFunded(AccountType.SETTLEMENT_ACCOUNT, amount);
+        return PostingCommand.builder()
                 .transactionId(TransactionId.generate())
                 .transactionType(TransactionType.CASH_IN)
                 .referenceId(referenceId)
                 .legs(List.of(
                         PostingLeg.builder().accountId(settlement.getAccountId()).direction(EntryDirection.DEBIT).amount(amount).build(),
-                        PostingLeg.builder().accountId(userAccount.getAccountId()).direction(EntryDirection.CREDIT).amount(amount).build()))
+                        PostingLeg.builder().accountId(userAccount.accountId()).direction(EntryDirection.CREDIT).amount(amount).build()))
                 .build();
-        PostingResult result = ledgerPostingEngine.post(cmd);
-        log.info("Cash-in completed userId={} txnId={}", userId, result.getTransaction().getTransactionId().value());
-        return result;
     }
 }
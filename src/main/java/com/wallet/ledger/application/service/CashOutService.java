@@ -2,11 +2,12 @@ package com.wallet.ledger.application.service;
 
 import com.wallet.ledger.application.port.*;
 import com.wallet.ledger.domain.entity.Account;
+import com.wallet.ledger.domain.entity.LedgerEntry;
+import com.wallet.ledger.domain.entity.Transaction;
 import com.wallet.ledger.domain.valueobject.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -16,29 +17,23 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CashOutService {
 
-    private final FindWalletPort findWalletPort;
-    private final FindAccountPort findAccountPort;
-    private final LockAccountPort lockAccountPort;
+    private final UserAccountCache userAccountCache;
+    private final SystemAccountRegistry systemAccountRegistry;
     private final LedgerPostingEngine ledgerPostingEngine;
+    private final FindTransactionByReferencePort findTransactionByReferencePort;
+    private final FindLedgerEntriesByTransactionIdPort findLedgerEntriesByTransactionIdPort;
 
     /** Step 1: DEBIT user_wallet, CREDIT withdrawal_pending */
-    @Transactional
     public PostingResult reserveWithdrawal(String userId, BigDecimal amount, String referenceId) {
         log.debug("Reserve withdrawal userId={} amount={} referenceId={}", userId, amount, referenceId);
-        var wallet = findWalletPort.findByUserId(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Wallet not found for userId: " + userId));
-        Account userAccount = findAccountPort.findByWalletIdAndType(wallet.getWalletId(), AccountType.USER_WALLET_ACCOUNT)
-                .orElseThrow(() -> new IllegalArgumentException("Wallet account not found for userId: " + userId));
-        Account pendingAccount = findAccountPort.findSystemAccountByType(AccountType.WITHDRAWAL_PENDING_ACCOUNT)
-                .orElseThrow(() -> new IllegalStateException("Withdrawal pending account not found"));
-        lockAccountPort.lockForUpdate(userAccount.getAccountId())
-                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + userAccount.getAccountId().value()));
+        UserAccount userAccount = userAccountCache.require(userId);
+        Account pendingAccount = systemAccountRegistry.pick(AccountType.WITHDRAWAL_PENDING_ACCOUNT);
         PostingCommand cmd = PostingCommand.builder()
                 .transactionId(TransactionId.generate())
                 .transactionType(TransactionType.WITHDRAWAL_RESERVE)
                 .referenceId(referenceId)
                 .legs(List.of(
-                        PostingLeg.builder().accountId(userAccount.getAccountId()).direction(EntryDirection.DEBIT).amount(amount).build(),
+                        PostingLeg.builder().accountId(userAccount.accountId()).direction(EntryDirection.DEBIT).amount(amount).build(),
                         PostingLeg.builder().accountId(pendingAccount.getAccountId()).direction(EntryDirection.CREDIT).amount(amount).build()))
                 .build();
         PostingResult result = ledgerPostingEngine.post(cmd);
@@ -46,19 +41,33 @@ public class CashOutService {
         return result;
     }
 
-    /** Step 2: DEBIT withdrawal_pending, CREDIT settlement_account */
+    /**
+     * Step 2: DEBIT withdrawal_pending, CREDIT settlement_account. referenceId is the reservation's; the settle debits
+     * the pending shard the reservation credited (shards are not exempt from the overdraft check) and is posted once
+     * per reservation, under reference "settle:" + referenceId. Settlement is all-or-nothing: amount must equal the
+     * reserved amount, since a partial settle would leave the remainder with no reference to settle it under.
+     */
     public PostingResult settleWithdrawal(String referenceId, BigDecimal amount) {
         log.debug("Settle withdrawal referenceId={} amount={}", referenceId, amount);
-        Account pending = findAccountPort.findSystemAccountByType(AccountType.WITHDRAWAL_PENDING_ACCOUNT)
-                .orElseThrow(() -> new IllegalStateException("Withdrawal pending account not found"));
-        Account settlement = findAccountPort.findSystemAccountByType(AccountType.SETTLEMENT_ACCOUNT)
-                .orElseThrow(() -> new IllegalStateException("Settlement account not found"));
+        Transaction reservation = findTransactionByReferencePort.findByReferenceId(referenceId)
+                .filter(t -> t.getTransactionType() == TransactionType.WITHDRAWAL_RESERVE)
+                .orElseThrow(() -> new IllegalArgumentException("Withdrawal reservation not found: " + referenceId));
+        List<AccountId> pendingShards = systemAccountRegistry.shards(AccountType.WITHDRAWAL_PENDING_ACCOUNT).stream()
+                .map(Account::getAccountId).toList();
+        LedgerEntry reserved = findLedgerEntriesByTransactionIdPort.findByTransactionId(reservation.getTransactionId()).stream()
+                .filter(e -> e.getDirection() == EntryDirection.CREDIT && pendingShards.contains(e.getAccountId()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Reservation " + referenceId + " has no withdrawal-pending entry"));
+        if (LedgerAmount.of(amount).compareTo(reserved.getAmount()) != 0) {
+            throw new IllegalArgumentException("Settle amount " + amount + " must equal reserved " + reserved.getAmount());
+        }
+        Account settlement = systemAccountRegistry.pick(AccountType.SETTLEMENT_ACCOUNT);
         PostingCommand cmd = PostingCommand.builder()
                 .transactionId(TransactionId.generate())
                 .transactionType(TransactionType.WITHDRAWAL_SETTLE)
-                .referenceId(referenceId)
+                .referenceId("settle:" + referenceId)
                 .legs(List.of(
-                        PostingLeg.builder().accountId(pending.getAccountId()).direction(EntryDirection.DEBIT).amount(amount).build(),
+                        PostingLeg.builder().accountId(reserved.getAccountId()).direction(EntryDirection.DEBIT).amount(amount).build(),
                         PostingLeg.builder().accountId(settlement.getAccountId()).direction(EntryDirection.CREDIT).amount(amount).build()))
                 .build();
         PostingResult result = ledgerPostingEngine.post(cmd);
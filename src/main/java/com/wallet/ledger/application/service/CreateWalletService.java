@@ -11,7 +11,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -24,7 +29,7 @@ public class CreateWalletService {
     private final FindWalletPort findWalletPort;
     private final SaveWalletPort saveWalletPort;
     private final SaveAccountPort saveAccountPort;
-    private final FindAccountPort findAccountPort;
+    private final SystemAccountRegistry systemAccountRegistry;
     private final LedgerPostingEngine ledgerPostingEngine;
 
     @Transactional
@@ -51,8 +56,7 @@ public class CreateWalletService {
         saveAccountPort.save(account);
 
         // Credit new wallet with default amount (DEBIT settlement, CREDIT user_wallet)
-        Account settlement = findAccountPort.findSystemAccountByType(AccountType.SETTLEMENT_ACCOUNT)
-                .orElseThrow(() -> new IllegalStateException("Settlement account not found"));
+        Account settlement = systemAccountRegistry.pickFunded(AccountType.SETTLEMENT_ACCOUNT, DEFAULT_WALLET_AMOUNT);
         String ref = "wallet-creation-" + walletId.value();
         PostingCommand cmd = PostingCommand.builder()
                 .transactionId(TransactionId.generate())
@@ -67,4 +71,71 @@ public class CreateWalletService {
         log.info("Created wallet walletId={} userId={} with default balance {}", wallet.getWalletId().value(), wallet.getUserId(), DEFAULT_WALLET_AMOUNT);
         return wallet;
     }
+
+    /**
+     * Bulk onboarding: one existence check, one multi-row wallet insert, one multi-row account insert and one
+     * multi-leg opening posting (a single settlement debit, one credit per new wallet). Users that already have a
+     * wallet, or appear twice in the request, are skipped rather than failing the batch. Results are in request order.
+     */
+    @Transactional
+    public List<WalletCreation> createWallets(List<NewWallet> requests) {
+        Set<String> existing = findWalletPort.findExistingUserIds(requests.stream().map(NewWallet::userId).toList());
+        Set<String> seen = new HashSet<>();
+        List<Wallet> wallets = new ArrayList<>(requests.size());
+        for (NewWallet request : requests) {
+            if (existing.contains(request.userId()) || !seen.add(request.userId())) continue;
+            wallets.add(Wallet.builder()
+                    .walletId(WalletId.generate())
+                    .userId(request.userId())
+                    .status(WalletStatus.ACTIVE)
+                    .currency(request.currency() != null && !request.currency().isBlank() ? request.currency() : "USD")
+                    .createdAt(Instant.now())
+                    .build());
+        }
+        // A concurrent create between the check and the insert loses the ON CONFLICT and is skipped here as well.
+        Set<String> inserted = saveWalletPort.saveWallets(wallets);
+        List<Wallet> created = wallets.stream().filter(w -> inserted.contains(w.getUserId())).toList();
+        List<Account> accounts = created.stream()
+                .map(w -> Account.builder()
+                        .accountId(AccountId.generate())
+                        .accountType(AccountType.USER_WALLET_ACCOUNT)
+                        .status(AccountStatus.ACTIVE)
+                        .walletId(w.getWalletId())
+                        .build())
+                .toList();
+        saveAccountPort.saveAccounts(accounts);
+
+        if (!accounts.isEmpty()) {
+            LedgerAmount perWallet = LedgerAmount.of(DEFAULT_WALLET_AMOUNT);
+            LedgerAmount total = LedgerAmount.ofMinorUnits(Math.multiplyExact(perWallet.minorUnits(), (long) accounts.size()));
+            Account settlement = systemAccountRegistry.pickFunded(AccountType.SETTLEMENT_ACCOUNT, total.toBigDecimal());
+            List<PostingLeg> legs = new ArrayList<>(accounts.size() + 1);
+            legs.add(PostingLeg.builder().accountId(settlement.getAccountId()).direction(EntryDirection.DEBIT).amount(total).build());
+            for (Account account : accounts) {
+                legs.add(PostingLeg.builder().accountId(account.getAccountId()).direction(EntryDirection.CREDIT).amount(perWallet).build());
+            }
+            TransactionId txnId = TransactionId.generate();
+            ledgerPostingEngine.post(PostingCommand.builder()
+                    .transactionId(txnId)
+                    .transactionType(TransactionType.CASH_IN)
+                    .referenceId("wallet-onboarding-" + txnId.value())
+                    .legs(legs)
+                    .build());
+        }
+
+        Map<String, Wallet> createdByUser = new HashMap<>();
+        created.forEach(w -> createdByUser.put(w.getUserId(), w));
+        List<WalletCreation> results = new ArrayList<>(requests.size());
+        for (NewWallet request : requests) {
+            Wallet wallet = createdByUser.remove(request.userId());
+            results.add(wallet != null ? new WalletCreation(request.userId(), true, wallet) : new WalletCreation(request.userId(), false, null));
+        }
+        log.info("Bulk onboarding requested={} created={} with default balance {} each", requests.size(), created.size(), DEFAULT_WALLET_AMOUNT);
+        return results;
+    }
+
+    public record NewWallet(String userId, String currency) {}
+
+    /** created=false: the user already had a wallet (or was listed earlier in the same request). */
+    public record WalletCreation(String userId, boolean created, Wallet wallet) {}
 }
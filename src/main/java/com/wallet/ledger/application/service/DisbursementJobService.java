@@ -0,0 +1,547 @@
+package com.wallet.ledger.application.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wallet.ledger.application.port.DisbursementJob;
+import com.wallet.ledger.application.port.DisbursementJobPort;
+import com.wallet.ledger.application.port.PostingCommand;
+import com.wallet.ledger.application.port.PostingLeg;
+import com.wallet.ledger.application.port.UserAccount;
+import com.wallet.ledger.domain.entity.Account;
+import com.wallet.ledger.domain.valueobject.AccountType;
+import com.wallet.ledger.domain.valueobject.EntryDirection;
+import com.wallet.ledger.domain.valueobject.LedgerAmount;
+import com.wallet.ledger.domain.valueobject.TransactionId;
+import com.wallet.ledger.domain.valueobject.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bulk settlement-to-wallet credits (CASH_IN, as {@link CashInService}) from a CSV or NDJSON file. The upload is
+ * streamed to a spool file, then read line by line and cut into chunks. Each chunk is posted with
+ * {@link LedgerPostingEngine#postBatch} on a bounded worker pool; the reader blocks once max-in-flight-chunks are
+ * queued, so memory stays bounded whatever the file size. Each chunk debits one settlement shard, so chunks on
+ * different shards do not contend.
+ * <p>
+ * The checkpoint (lines_committed) only advances over a contiguous prefix of finished chunks. After a crash the job
+ * restarts from it; chunks that had finished beyond it are posted again and replay by reference ({@code disb:<reference>},
+ * so file references never collide with API idempotency keys). A replay that would pay another user or amount is
+ * rejected. Lines that cannot be posted go to a rejects file next to the spool file, with the reason; on restart its
+ * records past the checkpoint are dropped, as those lines are processed again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DisbursementJobService {
+
+    private static final String REFERENCE_PREFIX = "disb:";
+    /** transaction.reference_id is VARCHAR(255). */
+    private static final int MAX_REFERENCE_LENGTH = 255 - REFERENCE_PREFIX.length();
+
+    private final DisbursementJobPort disbursementJobPort;
+    private final UserAccountCache userAccountCache;
+    private final SystemAccountRegistry systemAccountRegistry;
+    private final LedgerPostingEngine ledgerPostingEngine;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ledger.disbursement.spool-dir:${java.io.tmpdir}/ledger-disbursements}")
+    private Path spoolDir;
+
+    @Value("${ledger.disbursement.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${ledger.disbursement.parallelism:4}")
+    private int parallelism;
+
+    @Value("${ledger.disbursement.max-in-flight-chunks:8}")
+    private int maxInFlightChunks;
+
+    @Value("${ledger.disbursement.progress-interval-ms:5000}")
+    private long progressIntervalMs;
+
+    @Value("${ledger.disbursement.stale-after-ms:60000}")
+    private long staleAfterMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final Map<UUID, Progress> running = new ConcurrentHashMap<>();
+    private ExecutorService jobRunner;
+    private ExecutorService chunkWorkers;
+    private ScheduledExecutorService monitor;
+    private Counter postedLines;
+    private Counter replayedLines;
+    private Counter rejectedLines;
+    private Timer chunkTimer;
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(spoolDir);
+        jobRunner = Executors.newSingleThreadExecutor(ThreadFactories.named("ledger-disbursement-job", virtualThreads));
+        chunkWorkers = Executors.newFixedThreadPool(parallelism, ThreadFactories.named("ledger-disbursement-worker", virtualThreads));
+        monitor = Executors.newSingleThreadScheduledExecutor(ThreadFactories.named("ledger-disbursement-monitor", false));
+        postedLines = lines("posted");
+        replayedLines = lines("replayed");
+        rejectedLines = lines("rejected");
+        chunkTimer = Timer.builder("ledger.disbursement.chunk")
+                .description("Time to parse, resolve and post one disbursement chunk")
+                .register(meterRegistry);
+        monitor.scheduleWithFixedDelay(this::reportProgress, progressIntervalMs, progressIntervalMs, TimeUnit.MILLISECONDS);
+        // Picks up jobs left PENDING or RUNNING (no heartbeat for stale-after-ms) by a node that died, including this one.
+        monitor.scheduleWithFixedDelay(this::recoverJobs, 0, staleAfterMs, TimeUnit.MILLISECONDS);
+        log.info("Disbursement jobs spoolDir={} chunkSize={} parallelism={} maxInFlightChunks={}",
+                spoolDir, chunkSize, parallelism, maxInFlightChunks);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        monitor.shutdownNow();
+        jobRunner.shutdownNow();
+        chunkWorkers.shutdownNow();
+    }
+
+    private Counter lines(String result) {
+        return Counter.builder("ledger.disbursement.lines")
+                .description("Disbursement file lines by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /** Streams the upload to the spool directory (never held in memory) and queues the job. */
+    public DisbursementJob submit(InputStream body, DisbursementJob.Format format) throws IOException {
+        UUID jobId = UUID.randomUUID();
+        Path file = spoolDir.resolve(jobId + "." + format.name().toLowerCase());
+        long bytes = Files.copy(body, file);
+        Instant now = Instant.now();
+        DisbursementJob job = new DisbursementJob(jobId, format, file.toString(), DisbursementJob.Status.PENDING,
+                0, 0, 0, 0, BigDecimal.ZERO, null, now, now);
+        disbursementJobPort.create(job);
+        log.info("Disbursement job submitted jobId={} format={} bytes={}", jobId, format, bytes);
+        jobRunner.execute(() -> run(jobId));
+        return job;
+    }
+
+    /** Re-queue a FAILED job (or a RUNNING one whose node died) from its checkpoint. */
+    public DisbursementJob resume(UUID jobId) {
+        DisbursementJob job = disbursementJobPort.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Disbursement job not found: " + jobId));
+        if (job.status() == DisbursementJob.Status.COMPLETED) {
+            throw new IllegalArgumentException("Disbursement job already completed: " + jobId);
+        }
+        if (!running.containsKey(jobId)) {
+            jobRunner.execute(() -> run(jobId));
+        }
+        return job;
+    }
+
+    public Optional<DisbursementJobStatus> getStatus(UUID jobId) {
+        return disbursementJobPort.findById(jobId).map(job -> {
+            Progress progress = running.get(jobId);
+            return new DisbursementJobStatus(job, progress != null ? progress.linesPerSecond() : null);
+        });
+    }
+
+    /** Rejects file of a job (may not exist yet when nothing was rejected). */
+    public Path rejectsFile(UUID jobId) {
+        return spoolDir.resolve(jobId + ".rejects.csv");
+    }
+
+    public record DisbursementJobStatus(DisbursementJob job, Double linesPerSecond) {
+    }
+
+    private void recoverJobs() {
+        try {
+            Instant staleBefore = Instant.now().minusMillis(staleAfterMs);
+            List<DisbursementJob> candidates = new ArrayList<>(disbursementJobPort.findByStatus(DisbursementJob.Status.PENDING));
+            candidates.addAll(disbursementJobPort.findByStatus(DisbursementJob.Status.RUNNING));
+            for (DisbursementJob job : candidates) {
+                if (!job.updatedAt().isBefore(staleBefore)) continue;
+                if (!running.containsKey(job.jobId())) {
+                    log.info("Recovering disbursement job jobId={} status={} checkpoint={}", job.jobId(), job.status(), job.linesCommitted());
+                    jobRunner.execute(() -> run(job.jobId()));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Disbursement job recovery scan failed: {}", e.getMessage());
+        }
+    }
+
+    private void run(UUID jobId) {
+        if (running.containsKey(jobId) || !disbursementJobPort.claim(jobId, Instant.now().minusMillis(staleAfterMs))) {
+            log.debug("Disbursement job jobId={} not claimable (running elsewhere or finished)", jobId);
+            return;
+        }
+        DisbursementJob job = disbursementJobPort.findById(jobId).orElseThrow();
+        Progress progress = new Progress(job);
+        running.put(jobId, progress);
+        Semaphore inFlight = new Semaphore(maxInFlightChunks);
+        log.info("Disbursement job started jobId={} format={} fromLine={}", jobId, job.format(), job.linesCommitted());
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(job.filePath()), StandardCharsets.UTF_8);
+             RejectsWriter rejects = RejectsWriter.openAfter(rejectsFile(jobId), job.linesCommitted())) {
+            long lineNumber = 0;
+            while (lineNumber < job.linesCommitted() && reader.readLine() != null) {
+                lineNumber++;
+            }
+            List<Line> chunk = new ArrayList<>(chunkSize);
+            long chunkStart = lineNumber;
+            String raw;
+            while (progress.failure.get() == null && (raw = reader.readLine()) != null) {
+                lineNumber++;
+                if (raw.isBlank() || (lineNumber == 1 && isHeader(job.format(), raw))) continue;
+                chunk.add(new Line(lineNumber, raw));
+                if (chunk.size() == chunkSize) {
+                    submitChunk(job, progress, inFlight, rejects, chunk, chunkStart, lineNumber);
+                    chunk = new ArrayList<>(chunkSize);
+                    chunkStart = lineNumber;
+                }
+            }
+            if (progress.failure.get() == null && lineNumber > chunkStart) {
+                submitChunk(job, progress, inFlight, rejects, chunk, chunkStart, lineNumber);
+            }
+            inFlight.acquire(maxInFlightChunks);
+            if (progress.failure.get() != null) throw progress.failure.get();
+            disbursementJobPort.updateStatus(jobId, DisbursementJob.Status.COMPLETED, null);
+            log.info("Disbursement job completed jobId={} lines={} posted={} replayed={} rejected={} rate={}/s", jobId,
+                    progress.committedLine, progress.posted, progress.replayed, progress.rejected, String.format("%.0f", progress.linesPerSecond()));
+        } catch (InterruptedException e) {
+            // Shutting down: left RUNNING so it is recovered from the checkpoint once stale.
+            Thread.currentThread().interrupt();
+            log.warn("Disbursement job interrupted jobId={} checkpoint={}", jobId, progress.committedLine);
+        } catch (Exception e) {
+            log.error("Disbursement job failed jobId={} checkpoint={}", jobId, progress.committedLine, e);
+            disbursementJobPort.updateStatus(jobId, DisbursementJob.Status.FAILED, String.valueOf(e.getMessage()));
+        } finally {
+            running.remove(jobId);
+        }
+    }
+
+    private static boolean isHeader(DisbursementJob.Format format, String raw) {
+        return format == DisbursementJob.Format.CSV && raw.strip().toLowerCase().startsWith("userid");
+    }
+
+    /** Blocks while max-in-flight-chunks are queued or running (back-pressure on the reader). */
+    private void submitChunk(DisbursementJob job, Progress progress, Semaphore inFlight, RejectsWriter rejects, List<Line> lines,
+                             long startLine, long endLine) throws InterruptedException {
+        inFlight.acquire();
+        try {
+            chunkWorkers.execute(() -> {
+                try {
+                    if (progress.failure.get() != null) return;
+                    ChunkResult result = chunkTimer.record(() -> processChunk(job.format(), lines, endLine, rejects));
+                    progress.complete(startLine, result);
+                } catch (Exception e) {
+                    progress.failure.compareAndSet(null, e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private ChunkResult processChunk(DisbursementJob.Format format, List<Line> lines, long endLine, RejectsWriter rejects) {
+        List<Disbursement> parsed = new ArrayList<>(lines.size());
+        long rejected = 0;
+        for (Line line : lines) {
+            try {
+                parsed.add(parse(format, line));
+            } catch (IllegalArgumentException e) {
+                rejects.write(line, e.getMessage());
+                rejected++;
+            }
+        }
+        Map<String, UserAccount> accounts = userAccountCache.findAll(parsed.stream().map(Disbursement::userId).toList());
+        List<Disbursement> postable = new ArrayList<>(parsed.size());
+        BigDecimal chunkAmount = BigDecimal.ZERO;
+        for (Disbursement d : parsed) {
+            if (accounts.get(d.userId()) == null) {
+                rejects.write(d.line(), "Wallet not found for userId: " + d.userId());
+                rejected++;
+                continue;
+            }
+            postable.add(d);
+            chunkAmount = chunkAmount.add(d.amount().toBigDecimal());
+        }
+        // One settlement shard per chunk, one that covers the whole chunk where possible.
+        Account settlement = systemAccountRegistry.pickFunded(AccountType.SETTLEMENT_ACCOUNT, chunkAmount);
+        List<PostingCommand> commands = new ArrayList<>(postable.size());
+        for (Disbursement d : postable) {
+            UserAccount account = accounts.get(d.userId());
+            commands.add(PostingCommand.builder()
+                    .transactionId(TransactionId.generate())
+                    .transactionType(TransactionType.CASH_IN)
+                    .referenceId(REFERENCE_PREFIX + d.reference())
+                    .legs(List.of(
+                            PostingLeg.builder().accountId(settlement.getAccountId()).direction(EntryDirection.DEBIT).amount(d.amount()).build(),
+                            PostingLeg.builder().accountId(account.accountId()).direction(EntryDirection.CREDIT).amount(d.amount()).build()))
+                    .build());
+        }
+        long posted = 0;
+        long replayed = 0;
+        BigDecimal postedAmount = BigDecimal.ZERO;
+        if (!commands.isEmpty()) {
+            BatchPostingResult result = ledgerPostingEngine.postBatch(commands, false);
+            for (int i = 0; i < postable.size(); i++) {
+                BatchPostingResult.Item item = result.items().get(i);
+                switch (item.status()) {
+                    case POSTED -> {
+                        posted++;
+                        postedAmount = postedAmount.add(postable.get(i).amount().toBigDecimal());
+                    }
+                    case REPLAYED -> replayed++;
+                    default -> {
+                        rejects.write(postable.get(i).line(), item.error());
+                        rejected++;
+                    }
+                }
+            }
+        }
+        rejects.flush();
+        postedLines.increment(posted);
+        replayedLines.increment(replayed);
+        rejectedLines.increment(rejected);
+        return new ChunkResult(endLine, lines.size(), posted, replayed, rejected, postedAmount);
+    }
+
+    private Disbursement parse(DisbursementJob.Format format, Line line) {
+        String userId;
+        String amount;
+        String reference;
+        if (format == DisbursementJob.Format.CSV) {
+            String[] fields = line.raw().split(",", -1);
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Expected userId,amount,reference but got " + fields.length + " fields");
+            }
+            userId = fields[0].strip();
+            amount = fields[1].strip();
+            reference = fields[2].strip();
+        } else {
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line.raw());
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+            }
+            userId = node.path("userId").asText("");
+            amount = node.path("amount").asText("");
+            reference = node.path("reference").asText("");
+        }
+        if (userId.isBlank()) throw new IllegalArgumentException("userId is required");
+        if (reference.isBlank()) throw new IllegalArgumentException("reference is required");
+        if (reference.length() > MAX_REFERENCE_LENGTH) {
+            throw new IllegalArgumentException("reference must be at most " + MAX_REFERENCE_LENGTH + " characters");
+        }
+        BigDecimal value;
+        try {
+            value = new BigDecimal(amount);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount);
+        }
+        if (value.compareTo(new BigDecimal("0.01")) < 0) {
+            throw new IllegalArgumentException("amount must be positive: " + amount);
+        }
+        try {
+            return new Disbursement(line, userId, LedgerAmount.of(value), reference);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("amount out of range: " + amount);
+        }
+    }
+
+    private void reportProgress() {
+        running.forEach((jobId, progress) -> {
+            try {
+                disbursementJobPort.heartbeat(jobId);
+            } catch (RuntimeException e) {
+                log.warn("Disbursement heartbeat failed jobId={}: {}", jobId, e.getMessage());
+            }
+            log.info("Disbursement progress jobId={} checkpoint={} posted={} replayed={} rejected={} rate={}/s", jobId,
+                    progress.committedLine, progress.posted, progress.replayed, progress.rejected, String.format("%.0f", progress.linesPerSecond()));
+        });
+    }
+
+    private record Line(long number, String raw) {
+    }
+
+    private record Disbursement(Line line, String userId, LedgerAmount amount, String reference) {
+    }
+
+    private record ChunkResult(long endLine, int lines, long posted, long replayed, long rejected, BigDecimal postedAmount) {
+    }
+
+    /** Checkpoint of one running job: advances only over a contiguous prefix of finished chunks. */
+    private final class Progress {
+
+        private final UUID jobId;
+        private final long startedAt = System.nanoTime();
+        private final AtomicLong linesProcessed = new AtomicLong();
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        /** Finished chunks beyond the checkpoint, by start line. */
+        private final TreeMap<Long, ChunkResult> finished = new TreeMap<>();
+        /** Not synchronized: the checkpoint write would pin a virtual thread's carrier while holding the monitor. */
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long committedLine;
+        private volatile long posted;
+        private volatile long replayed;
+        private volatile long rejected;
+
+        Progress(DisbursementJob job) {
+            this.jobId = job.jobId();
+            this.committedLine = job.linesCommitted();
+            this.posted = job.posted();
+            this.replayed = job.replayed();
+            this.rejected = job.rejected();
+        }
+
+        void complete(long startLine, ChunkResult result) {
+            linesProcessed.addAndGet(result.lines());
+            lock.lock();
+            try {
+                advance(startLine, result);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void advance(long startLine, ChunkResult result) {
+            finished.put(startLine, result);
+            long addPosted = 0;
+            long addReplayed = 0;
+            long addRejected = 0;
+            BigDecimal addAmount = BigDecimal.ZERO;
+            long line = committedLine;
+            ChunkResult next;
+            while ((next = finished.remove(line)) != null) {
+                addPosted += next.posted();
+                addReplayed += next.replayed();
+                addRejected += next.rejected();
+                addAmount = addAmount.add(next.postedAmount());
+                line = next.endLine();
+            }
+            if (line == committedLine) return;
+            disbursementJobPort.checkpoint(jobId, line, addPosted, addReplayed, addRejected, addAmount);
+            committedLine = line;
+            posted += addPosted;
+            replayed += addReplayed;
+            rejected += addRejected;
+        }
+
+        double linesPerSecond() {
+            double seconds = Duration.ofNanos(System.nanoTime() - startedAt).toMillis() / 1000.0;
+            return seconds <= 0 ? 0 : linesProcessed.get() / seconds;
+        }
+    }
+
+    /**
+     * Appends rejected lines as CSV, one record per line: line number, reason, original line. Shared by the chunk
+     * workers of one job.
+     */
+    private static final class RejectsWriter implements AutoCloseable {
+
+        private final BufferedWriter writer;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private RejectsWriter(Path path) throws IOException {
+            this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+
+        /**
+         * Drops records for lines after the checkpoint, which a previous run wrote (possibly partially) and this run
+         * processes again; records up to the checkpoint were flushed before it advanced.
+         */
+        static RejectsWriter openAfter(Path path, long checkpoint) throws IOException {
+            if (Files.exists(path)) {
+                Path kept = path.resolveSibling(path.getFileName() + ".tmp");
+                try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+                     BufferedWriter writer = Files.newBufferedWriter(kept, StandardCharsets.UTF_8)) {
+                    String record;
+                    while ((record = reader.readLine()) != null) {
+                        int comma = record.indexOf(',');
+                        if (comma > 0 && Long.parseLong(record.substring(0, comma)) <= checkpoint) {
+                            writer.write(record);
+                            writer.newLine();
+                        }
+                    }
+                }
+                Files.move(kept, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new RejectsWriter(path);
+        }
+
+        void write(Line line, String reason) {
+            lock.lock();
+            try {
+                writer.write(line.number() + "," + quote(reason == null ? null : reason.replaceAll("[\\r\\n]+", " ")) + "," + quote(line.raw()));
+                writer.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void flush() {
+            lock.lock();
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            lock.lock();
+            try {
+                writer.close();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private static String quote(String value) {
+            return "\"" + String.valueOf(value).replace("\"", "\"\"") + "\"";
+        }
+    }
+}
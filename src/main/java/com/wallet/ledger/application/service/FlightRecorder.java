@@ -0,0 +1,138 @@
+package com.wallet.ledger.application.service;
+
+import com.wallet.ledger.application.service.RequestTrace.Phase;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the slowest requests per endpoint over the last window-ms with their {@link RequestTrace} phase breakdown.
+ * Each endpoint has a lock-free array of ring-size slots. A finished request slower than the endpoint's admission
+ * threshold (the slowest-th duration in the slots) replaces the fastest request held, or an empty or expired slot,
+ * with a compare-and-set on that slot, so a burst of moderately slow requests never pushes out a slower one still in
+ * the window. Every ring-size / 2 writes the threshold is recomputed by the writing thread; it lapses after window-ms,
+ * so a quiet period lets the next requests in again. Fast requests cost a map lookup and a comparison.
+ */
+@Component
+public class FlightRecorder {
+
+    @Value("${ledger.flight-recorder.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ledger.flight-recorder.slowest:20}")
+    private int slowest;
+
+    @Value("${ledger.flight-recorder.ring-size:128}")
+    private int ringSize;
+
+    @Value("${ledger.flight-recorder.window-ms:300000}")
+    private long windowMs;
+
+    private final Map<String, Ring> rings = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Offers a finished request; endpoint is "METHOD /path/pattern". */
+    public void record(String endpoint, int status, RequestTrace trace) {
+        record(endpoint, status, trace, trace.elapsedNanos());
+    }
+
+    /** As {@link #record(String, int, RequestTrace)} with the request's duration given. */
+    void record(String endpoint, int status, RequestTrace trace, long elapsed) {
+        long now = System.nanoTime();
+        // Slots rounded up to a power of two so the recompute interval is a mask test.
+        Ring ring = rings.computeIfAbsent(endpoint, e -> new Ring(Math.max(4, Integer.highestOneBit(ringSize - 1) << 1)));
+        if (elapsed < ring.threshold(now, windowNanos())) return;
+        Map<Phase, Long> phases = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, trace.phaseNanos(phase));
+        }
+        long written = ring.add(new SlowRequest(endpoint, status, trace.startedAt(), now, elapsed, phases, trace.sqlCount()), now, windowNanos());
+        if (written > 0 && (written & (ring.slots.length() / 2 - 1)) == 0) ring.recomputeThreshold(now, windowNanos(), slowest);
+    }
+
+    /** Slowest requests inside the window, slowest first; all endpoints when endpoint is null. */
+    public List<SlowRequest> slowest(String endpoint, int limit) {
+        if (limit < 1 || limit > 500) throw new IllegalArgumentException("limit must be between 1 and 500");
+        long now = System.nanoTime();
+        List<SlowRequest> result = new ArrayList<>();
+        rings.forEach((name, ring) -> {
+            if (endpoint == null || endpoint.equals(name)) result.addAll(ring.inWindow(now, windowNanos()));
+        });
+        result.sort(Comparator.comparingLong(SlowRequest::elapsedNanos).reversed());
+        return result.size() > limit ? List.copyOf(result.subList(0, limit)) : result;
+    }
+
+    private long windowNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(windowMs);
+    }
+
+    private static final class Ring {
+        final AtomicReferenceArray<SlowRequest> slots;
+        final AtomicLong writes = new AtomicLong();
+        volatile long thresholdNanos;
+        volatile long thresholdSetAt;
+
+        Ring(int size) {
+            this.slots = new AtomicReferenceArray<>(size);
+        }
+
+        long threshold(long now, long windowNanos) {
+            return now - thresholdSetAt > windowNanos ? 0 : thresholdNanos;
+        }
+
+        /** Replaces the fastest slot if the request is slower; the number of writes so far, or 0 if not stored. */
+        long add(SlowRequest request, long now, long windowNanos) {
+            while (true) {
+                int fastest = -1;
+                SlowRequest replaced = null;
+                long fastestNanos = Long.MAX_VALUE;
+                for (int i = 0; i < slots.length() && fastestNanos >= 0; i++) {
+                    SlowRequest held = slots.get(i);
+                    // Empty and expired slots go first.
+                    long heldNanos = held == null || now - held.finishedNanos() > windowNanos ? -1 : held.elapsedNanos();
+                    if (heldNanos < fastestNanos) {
+                        fastest = i;
+                        replaced = held;
+                        fastestNanos = heldNanos;
+                    }
+                }
+                if (fastestNanos >= request.elapsedNanos()) return 0;
+                if (slots.compareAndSet(fastest, replaced, request)) return writes.incrementAndGet();
+            }
+        }
+
+        List<SlowRequest> inWindow(long now, long windowNanos) {
+            List<SlowRequest> list = new ArrayList<>();
+            for (int i = 0; i < slots.length(); i++) {
+                SlowRequest request = slots.get(i);
+                if (request != null && now - request.finishedNanos() <= windowNanos) list.add(request);
+            }
+            return list;
+        }
+
+        /** Admit only requests at least as slow as the slowest-th request still in the window. */
+        void recomputeThreshold(long now, long windowNanos, int slowest) {
+            long[] elapsed = inWindow(now, windowNanos).stream().mapToLong(SlowRequest::elapsedNanos).sorted().toArray();
+            thresholdNanos = elapsed.length < slowest ? 0 : elapsed[elapsed.length - slowest];
+            thresholdSetAt = now;
+        }
+    }
+
+    /** One recorded request; phases in nanos, the rest of elapsedNanos is unattributed (e.g. validation, queueing). */
+    public record SlowRequest(String endpoint, int status, Instant startedAt, long finishedNanos, long elapsedNanos,
+                              Map<Phase, Long> phaseNanos, int sqlCount) {
+    }
+}
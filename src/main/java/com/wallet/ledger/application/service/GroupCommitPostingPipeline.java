@@ -0,0 +1,248 @@
+package com.wallet.ledger.application.service;
+
+import com.wallet.ledger.application.port.AccountBalanceSnapshot;
+import com.wallet.ledger.application.port.LoadAccountBalancesPort;
+import com.wallet.ledger.application.port.LockAccountPort;
+import com.wallet.ledger.application.port.PersistPostingPort;
+import com.wallet.ledger.application.port.PostingCommand;
+import com.wallet.ledger.application.port.PostingLeg;
+import com.wallet.ledger.application.port.PostingResult;
+import com.wallet.ledger.application.port.UpdateAccountBalancesPort;
+import com.wallet.ledger.domain.exception.DomainException;
+import com.wallet.ledger.domain.valueobject.AccountId;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group-commit pipeline: concurrent postings are queued for up to window-ms (or until max-batch-size), evaluated
+ * in memory with balances carried from one command to the next, and written in one DB transaction. Each caller
+ * still gets its own PostingResult or exception. If the batch transaction fails as a whole (e.g. a duplicate
+ * reference_id or a balance version conflict), its postings are written again one per transaction so only the
+ * offending command fails. Transient failures are not retried here, on the single flusher thread: they reach the
+ * caller, whose {@link TransientFailureRetryExecutor} backs off and submits again (or replays a duplicate reference).
+ * A reference id queued twice in one batch is written once; the later callers get a DuplicateKeyException.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GroupCommitPostingPipeline {
+
+    private final LockAccountPort lockAccountPort;
+    private final LoadAccountBalancesPort loadAccountBalancesPort;
+    private final PersistPostingPort persistPostingPort;
+    private final UpdateAccountBalancesPort updateAccountBalancesPort;
+    private final BalanceCache balanceCache;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final HotAccountProfiler hotAccountProfiler;
+
+    @Value("${ledger.posting.mode:DIRECT}")
+    private PostingMode postingMode;
+
+    @Value("${ledger.posting.group-commit.window-ms:2}")
+    private long windowMs;
+
+    @Value("${ledger.posting.group-commit.max-batch-size:64}")
+    private int maxBatchSize;
+
+    @Value("${ledger.posting.group-commit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${ledger.posting.lock-timeout-ms:2000}")
+    private long lockTimeoutMs;
+
+    /** Parsed once so postings compare AccountId values instead of formatting UUIDs. */
+    private AccountId systemMasterAccountId;
+
+    private BlockingQueue<PendingPosting> queue;
+    private Thread flusher;
+    private volatile boolean running;
+    private DistributionSummary batchSize;
+    private Timer commitLatency;
+
+    @Value("${ledger.system-accounts.master}")
+    void setSystemMasterAccountId(String value) {
+        this.systemMasterAccountId = AccountId.fromString(value);
+    }
+
+    @PostConstruct
+    void start() {
+        if (postingMode != PostingMode.GROUP_COMMIT) return;
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        batchSize = DistributionSummary.builder("ledger.group.commit.batch.size")
+                .description("Postings committed per group-commit transaction")
+                .register(meterRegistry);
+        commitLatency = Timer.builder("ledger.group.commit.latency")
+                .description("Time to evaluate and commit one group-commit batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        running = true;
+        flusher = new Thread(this::runLoop, "ledger-group-commit");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Group-commit posting pipeline started windowMs={} maxBatchSize={}", windowMs, maxBatchSize);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher == null) return;
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /** Queue a posting for the next batch and wait for its outcome. Blocks when the queue is full (back-pressure). */
+    public PostingResult submit(PostingCommand command) {
+        if (!running) {
+            throw new IllegalStateException("Group-commit pipeline is not running");
+        }
+        PendingPosting pending = new PendingPosting(command, new CompletableFuture<>());
+        try {
+            queue.put(pending);
+            return pending.result().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for posting " + command.getTransactionId().value(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void runLoop() {
+        List<PendingPosting> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingPosting first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) break;
+                    PendingPosting next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Group-commit flush failed batchSize={}", batch.size(), e);
+                batch.forEach(p -> p.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+        PendingPosting left;
+        while ((left = queue.poll()) != null) {
+            left.result().completeExceptionally(new IllegalStateException("Group-commit pipeline stopped"));
+        }
+    }
+
+    private void flush(List<PendingPosting> batch) {
+        long start = System.nanoTime();
+        List<Outcome> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> writeBatch(batch));
+        } catch (RuntimeException e) {
+            log.warn("Group-commit batch of {} failed, retrying postings individually: {}", batch.size(), e.getMessage());
+            for (PendingPosting pending : batch) {
+                flushSingle(pending);
+            }
+            return;
+        }
+        commitLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSize.record(batch.size());
+        outcomes.forEach(Outcome::complete);
+    }
+
+    /** One attempt; a failure goes to the caller, which retries with backoff on its own thread. */
+    private void flushSingle(PendingPosting pending) {
+        try {
+            List<Outcome> outcomes = transactionTemplate.execute(status -> writeBatch(List.of(pending)));
+            outcomes.forEach(Outcome::complete);
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    /** Evaluate all postings against one balance snapshot and persist the accepted ones. Runs inside a transaction. */
+    private List<Outcome> writeBatch(List<PendingPosting> batch) {
+        Set<AccountId> accountIds = new HashSet<>();
+        for (PendingPosting pending : batch) {
+            for (PostingLeg leg : pending.command().getLegs()) {
+                accountIds.add(leg.getAccountId());
+            }
+        }
+        long lockStart = System.nanoTime();
+        try {
+            lockAccountPort.lockAllInOrder(accountIds, Duration.ofMillis(lockTimeoutMs));
+        } catch (PessimisticLockingFailureException e) {
+            hotAccountProfiler.onLockTimeout(accountIds, System.nanoTime() - lockStart);
+            throw e;
+        }
+        hotAccountProfiler.onLocked(accountIds, System.nanoTime() - lockStart);
+        Map<AccountId, AccountBalanceSnapshot> snapshots = loadAccountBalancesPort.loadSnapshots(accountIds);
+        PostingBatch postingBatch = new PostingBatch(snapshots, systemMasterAccountId);
+        List<Outcome> outcomes = new ArrayList<>(batch.size());
+        Set<String> references = new HashSet<>();
+        for (PendingPosting pending : batch) {
+            String referenceId = pending.command().getReferenceId();
+            if (!references.add(referenceId)) {
+                // Resolved by the caller's retry executor once this batch has committed: a replay of the first
+                // posting with this reference, or a fresh attempt if that one failed.
+                outcomes.add(new Outcome(pending, null, new DuplicateKeyException("referenceId " + referenceId + " already queued in this batch")));
+                continue;
+            }
+            try {
+                PreparedPosting posting = postingBatch.add(pending.command());
+                outcomes.add(new Outcome(pending, PostingResult.of(posting.transaction()), null));
+            } catch (DomainException | ArithmeticException e) {
+                // Fails its own caller only (an overflowing amount answers 400 as in DIRECT mode); the batch goes on.
+                outcomes.add(new Outcome(pending, null, e));
+            }
+        }
+        if (!postingBatch.isEmpty()) {
+            persistPostingPort.persistAll(postingBatch.transactions(), postingBatch.entries());
+            updateAccountBalancesPort.compareAndSet(postingBatch.balanceUpdates());
+            hotAccountProfiler.onWritten(postingBatch.entries());
+            balanceCache.onPosted(postingBatch.resultingSnapshots().values());
+        }
+        return outcomes;
+    }
+
+    private record PendingPosting(PostingCommand command, CompletableFuture<PostingResult> result) {
+    }
+
+    /** Result for one caller, completed only after the batch transaction has committed. */
+    private record Outcome(PendingPosting pending, PostingResult result, RuntimeException error) {
+        void complete() {
+            if (error != null) pending.result().completeExceptionally(error);
+            else pending.result().complete(result);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.wallet.ledger.application.service;
+
+import com.wallet.ledger.application.port.FindAccountPort;
+import com.wallet.ledger.domain.entity.Account;
+import com.wallet.ledger.domain.entity.LedgerEntry;
+import com.wallet.ledger.domain.valueobject.AccountId;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Finds the accounts postings queue on. Every account lock unit (one posting, or one batch in group commit and
+ * batch posting) is counted per account with its lock wait (in-JVM stripes plus DB locks), the time from lock grant
+ * to commit and the postings written. Counts live in striped space-saving sketches of fixed capacity, so memory stays
+ * constant however many accounts are touched: an account not tracked replaces the least-counted one in its stripe and
+ * inherits that count as its error bound. Every decay-interval-ms all values are halved, so rates follow the recent
+ * load; an account's true lock rate lies between lockRate - errorBound and lockRate.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotAccountProfiler {
+
+    private final FindAccountPort findAccountPort;
+
+    @Value("${ledger.hot-accounts.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ledger.hot-accounts.capacity:4096}")
+    private int capacity;
+
+    @Value("${ledger.hot-accounts.stripes:32}")
+    private int stripeCount;
+
+    @Value("${ledger.hot-accounts.decay-interval-ms:30000}")
+    private long decayIntervalMs;
+
+    /** In-JVM stripe wait of the posting running on this thread, reported with its DB lock wait by onLocked. */
+    private final ThreadLocal<long[]> queuedNanos = ThreadLocal.withInitial(() -> new long[1]);
+    private Stripe[] stripes;
+    private ScheduledExecutorService decay;
+    private volatile long lastDecayNanos;
+
+    @PostConstruct
+    void init() {
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(Math.max(1, capacity / stripeCount));
+        }
+        lastDecayNanos = System.nanoTime();
+        if (enabled) {
+            decay = Executors.newSingleThreadScheduledExecutor(ThreadFactories.named("ledger-hot-accounts", false));
+            decay.scheduleAtFixedRate(this::decay, decayIntervalMs, decayIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        log.info("Hot account profiler enabled={} capacity={} stripes={} decayIntervalMs={}", enabled, capacity, stripeCount, decayIntervalMs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (decay != null) decay.shutdownNow();
+    }
+
+    /** Time the current thread waited on in-JVM account stripes before its posting transaction. */
+    void onQueued(long waitNanos) {
+        if (enabled) queuedNanos.get()[0] = waitNanos;
+    }
+
+    /** Drops an in-JVM wait that did not reach onLocked (e.g. the posting failed before locking). */
+    void clearQueued() {
+        if (enabled) queuedNanos.get()[0] = 0;
+    }
+
+    /**
+     * DB account locks granted inside the current transaction after lockWaitNanos. The accounts are recorded when
+     * the transaction completes, with the time they were held; a second lock unit in the same transaction joins the first.
+     */
+    void onLocked(Collection<AccountId> accountIds, long lockWaitNanos) {
+        if (!enabled || !TransactionSynchronizationManager.isSynchronizationActive()) return;
+        long[] queued = queuedNanos.get();
+        long waitNanos = lockWaitNanos + queued[0];
+        queued[0] = 0;
+        LockHold hold = (LockHold) TransactionSynchronizationManager.getResource(this);
+        if (hold == null) {
+            hold = new LockHold(System.nanoTime());
+            TransactionSynchronizationManager.bindResource(this, hold);
+            TransactionSynchronizationManager.registerSynchronization(hold);
+        }
+        for (AccountId accountId : accountIds) {
+            hold.waitNanos.merge(accountId, waitNanos, Long::sum);
+        }
+    }
+
+    /** Entries written under the current transaction's locks; each counts as one posting on its account. */
+    void onWritten(Collection<LedgerEntry> entries) {
+        if (!enabled) return;
+        LockHold hold = (LockHold) TransactionSynchronizationManager.getResource(this);
+        if (hold == null) return;
+        for (LedgerEntry entry : entries) {
+            hold.postings.merge(entry.getAccountId(), 1, Integer::sum);
+        }
+    }
+
+    /** A lock wait (in-JVM or DB) that timed out; counted as a lock unit without hold time. */
+    void onLockTimeout(Collection<AccountId> accountIds, long waitNanos) {
+        if (!enabled) return;
+        long total = waitNanos + queuedNanos.get()[0];
+        queuedNanos.get()[0] = 0;
+        for (AccountId accountId : accountIds) {
+            record(accountId, 0, total, 0, true);
+        }
+    }
+
+    /** The most locked accounts first, with their account type and wallet. */
+    public List<HotAccount> topAccounts(int limit) {
+        if (limit < 1 || limit > 500) throw new IllegalArgumentException("limit must be between 1 and 500");
+        double seconds = Math.max(1e-3, (decayIntervalMs + (System.nanoTime() - lastDecayNanos) / 1e6) / 1000.0);
+        List<Counters> all = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.counters.values().forEach(c -> all.add(c.copy()));
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        List<Counters> top = all.stream().sorted(Comparator.comparingDouble((Counters c) -> c.locks).reversed()).limit(limit).toList();
+        Map<AccountId, Account> accounts = top.isEmpty() ? Map.of() : findAccountPort.findByIds(top.stream().map(c -> c.accountId).toList());
+        return top.stream().map(c -> new HotAccount(c.accountId, accounts.get(c.accountId),
+                c.locks / seconds,
+                c.postings / seconds,
+                c.timeouts / seconds,
+                c.holds + c.timeouts == 0 ? 0 : c.waitNanos / (c.holds + c.timeouts) / 1e6,
+                c.holds == 0 ? 0 : c.holdNanos / c.holds / 1e6,
+                c.error / seconds)).toList();
+    }
+
+    /**
+     * Steady-state rate is value / (interval + time since the last halving): halving every interval makes a constant
+     * rate r settle at 2rT just before each halving, rT just after.
+     */
+    private void decay() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.counters.values().forEach(Counters::halve);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        lastDecayNanos = System.nanoTime();
+    }
+
+    private void record(AccountId accountId, int postings, long waitNanos, long holdNanos, boolean timedOut) {
+        Stripe stripe = stripes[Math.floorMod(accountId.value().hashCode() * 0x9E3779B9, stripes.length)];
+        stripe.lock.lock();
+        try {
+            Counters counters = stripe.counters.get(accountId);
+            if (counters == null) {
+                counters = new Counters(accountId);
+                if (stripe.counters.size() >= stripe.capacity) {
+                    Counters evicted = stripe.leastLocked();
+                    stripe.counters.remove(evicted.accountId);
+                    counters.locks = evicted.locks;
+                    counters.error = evicted.locks;
+                }
+                stripe.counters.put(accountId, counters);
+            }
+            counters.locks++;
+            counters.postings += postings;
+            counters.waitNanos += waitNanos;
+            if (timedOut) {
+                counters.timeouts++;
+            } else {
+                counters.holds++;
+                counters.holdNanos += holdNanos;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /** Account locks of one transaction, recorded once it commits or rolls back. */
+    private final class LockHold implements TransactionSynchronization {
+        private final long lockedAt;
+        private final Map<AccountId, Long> waitNanos = new HashMap<>();
+        private final Map<AccountId, Integer> postings = new HashMap<>();
+
+        LockHold(long lockedAt) {
+            this.lockedAt = lockedAt;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(HotAccountProfiler.this);
+            long holdNanos = System.nanoTime() - lockedAt;
+            boolean committed = status == STATUS_COMMITTED;
+            waitNanos.forEach((accountId, wait) ->
+                    record(accountId, committed ? postings.getOrDefault(accountId, 0) : 0, wait, holdNanos, false));
+        }
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<AccountId, Counters> counters;
+        final int capacity;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+            this.counters = new HashMap<>(capacity * 2);
+        }
+
+        /** Linear scan; stripes are small (capacity / stripes entries). */
+        Counters leastLocked() {
+            Counters min = null;
+            for (Counters c : counters.values()) {
+                if (min == null || c.locks < min.locks) min = c;
+            }
+            return min;
+        }
+    }
+
+    /** Decayed sums for one account; locks is the space-saving count, holds + timeouts the lock units seen since tracked. */
+    private static final class Counters {
+        final AccountId accountId;
+        double locks;
+        double error;
+        double postings;
+        double timeouts;
+        double waitNanos;
+        double holds;
+        double holdNanos;
+
+        Counters(AccountId accountId) {
+            this.accountId = accountId;
+        }
+
+        void halve() {
+            locks /= 2;
+            error /= 2;
+            postings /= 2;
+            timeouts /= 2;
+            waitNanos /= 2;
+            holds /= 2;
+            holdNanos /= 2;
+        }
+
+        Counters copy() {
+            Counters c = new Counters(accountId);
+            c.locks = locks;
+            c.error = error;
+            c.postings = postings;
+            c.timeouts = timeouts;
+            c.waitNanos = waitNanos;
+            c.holds = holds;
+            c.holdNanos = holdNanos;
+            return c;
+        }
+    }
+
+    /** account is null when the account row is not found (e.g. deleted in a test database). */
+    public record HotAccount(AccountId accountId, Account account, double locksPerSecond, double postingsPerSecond,
+                             double lockTimeoutsPerSecond, double avgLockWaitMs, double avgLockHoldMs, double errorBound) {
+    }
+}
@@ -0,0 +1,194 @@
+package com.wallet.ledger.application.service;
+
+import com.wallet.ledger.application.port.FindLedgerEntriesByTransactionIdPort;
+import com.wallet.ledger.application.port.FindTransactionByReferencePort;
+import com.wallet.ledger.application.port.PostingCommand;
+import com.wallet.ledger.application.port.PostingLeg;
+import com.wallet.ledger.application.port.PostingQueuePort;
+import com.wallet.ledger.application.port.PostingResult;
+import com.wallet.ledger.domain.entity.LedgerEntry;
+import com.wallet.ledger.domain.entity.Transaction;
+import com.wallet.ledger.domain.exception.InvalidPostingException;
+import com.wallet.ledger.domain.valueobject.TransactionId;
+import com.wallet.ledger.domain.valueobject.TransactionStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Idempotent replay by reference id (client Idempotency-Key or a generated id). Keys this node posted recently are
+ * held in a {@link RecentReferenceFilter}; only keys the filter might contain are looked up before posting, so the
+ * common new-key case costs no query. A duplicate the filter cannot know about (posted on another node or before
+ * the window) is caught by the unique index on reference_id and replayed by {@link TransientFailureRetryExecutor}.
+ * A replay is only returned when the stored transaction has the command's type and legs (accounts, directions,
+ * amounts; system account shards compare as their type's primary account, since each posting picks a shard).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyGuard {
+
+    private final FindTransactionByReferencePort findTransactionByReferencePort;
+    private final FindLedgerEntriesByTransactionIdPort findLedgerEntriesByTransactionIdPort;
+    private final PostingQueuePort postingQueuePort;
+    private final SystemAccountRegistry systemAccountRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ledger.idempotency.filter.expected-keys:1000000}")
+    private long expectedKeys;
+
+    @Value("${ledger.idempotency.filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${ledger.idempotency.filter.window-ms:600000}")
+    private long windowMs;
+
+    private RecentReferenceFilter filter;
+    private Counter newKeys;
+    private Counter replayed;
+    private Counter falsePositives;
+    private Counter replayedOnConflict;
+    private Counter mismatched;
+
+    @PostConstruct
+    void init() {
+        filter = new RecentReferenceFilter(expectedKeys, falsePositiveRate, TimeUnit.MILLISECONDS.toNanos(windowMs));
+        newKeys = checks("new");
+        replayed = checks("replayed");
+        falsePositives = checks("false_positive");
+        replayedOnConflict = checks("replayed_on_conflict");
+        mismatched = checks("mismatch");
+        log.info("Idempotency filter expectedKeys={} falsePositiveRate={} windowMs={}", expectedKeys, falsePositiveRate, windowMs);
+    }
+
+    private Counter checks(String result) {
+        return Counter.builder("ledger.idempotency.checks")
+                .description("Idempotency key checks by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /** The committed transaction for the command's reference id if this node may have posted it recently. */
+    public Optional<PostingResult> findCompleted(PostingCommand command) {
+        if (!filter.mightContain(command.getReferenceId())) {
+            newKeys.increment();
+            return Optional.empty();
+        }
+        Optional<PostingResult> existing = replay(command);
+        (existing.isPresent() ? replayed : falsePositives).increment();
+        return existing;
+    }
+
+    /** Resolves a unique violation on reference_id raised while posting; empty if the violation was something else. */
+    public Optional<PostingResult> replayOnConflict(PostingCommand command) {
+        Optional<PostingResult> existing = replay(command);
+        existing.ifPresent(result -> {
+            replayedOnConflict.increment();
+            filter.add(command.getReferenceId());
+        });
+        return existing;
+    }
+
+    public void recordPosted(PostingCommand command) {
+        filter.add(command.getReferenceId());
+    }
+
+    /**
+     * Committed transactions among many reference ids, in one lookup regardless of the filter: a batch pays one
+     * query either way, and this also covers keys posted on other nodes.
+     */
+    public Map<String, Transaction> findCommitted(Collection<String> referenceIds) {
+        Map<String, Transaction> committed = findTransactionByReferencePort.findByReferenceIds(referenceIds);
+        replayed.increment(committed.size());
+        newKeys.increment(referenceIds.size() - committed.size());
+        return committed;
+    }
+
+    /** True when the reference id is held by the command's own PENDING row (an accepted async posting), not a duplicate. */
+    public boolean isQueuedAs(PostingCommand command, Transaction existing) {
+        return existing.getStatus() == TransactionStatus.PENDING && existing.getTransactionId().equals(command.getTransactionId());
+    }
+
+    /**
+     * Throws IllegalArgumentException if the reference id belongs to a transaction of another type, and
+     * InvalidPostingException if it belongs to one with other legs (a reused key, not a retry).
+     */
+    public PostingResult replay(PostingCommand command, Transaction existing) {
+        return replay(command, existing, storedLegs(existing));
+    }
+
+    /** As {@link #replay(PostingCommand, Transaction)} with the legs loaded by {@link #storedLegs(Collection)}. */
+    public PostingResult replay(PostingCommand command, Transaction existing, List<PostingLeg> storedLegs) {
+        if (existing.getTransactionType() != command.getTransactionType()) {
+            throw new IllegalArgumentException("referenceId " + command.getReferenceId()
+                    + " is already used by a " + existing.getTransactionType() + " transaction");
+        }
+        Map<String, Long> stored = legTotals(storedLegs);
+        if (!stored.isEmpty() && !stored.equals(legTotals(command.getLegs()))) {
+            mismatched.increment();
+            throw new InvalidPostingException("referenceId " + command.getReferenceId()
+                    + " is already used by a transaction with different accounts or amounts");
+        }
+        log.info("Idempotent replay ref={} txnId={}", command.getReferenceId(), existing.getTransactionId().value());
+        return PostingResult.of(existing);
+    }
+
+    /**
+     * Entries once posted, queued legs while PENDING or FAILED. Read again after an empty queue lookup, in case the
+     * async worker posted it between the two reads.
+     */
+    public List<PostingLeg> storedLegs(Transaction existing) {
+        List<PostingLeg> legs = toLegs(findLedgerEntriesByTransactionIdPort.findByTransactionId(existing.getTransactionId()));
+        if (!legs.isEmpty() || existing.getStatus() == TransactionStatus.COMPLETED) return legs;
+        legs = postingQueuePort.findLegs(existing.getTransactionId());
+        return legs.isEmpty() ? toLegs(findLedgerEntriesByTransactionIdPort.findByTransactionId(existing.getTransactionId())) : legs;
+    }
+
+    /** Stored legs of many transactions: entries in one query, queued legs looked up only for unposted ones. */
+    public Map<TransactionId, List<PostingLeg>> storedLegs(Collection<Transaction> existing) {
+        Map<TransactionId, List<LedgerEntry>> entries = findLedgerEntriesByTransactionIdPort.findByTransactionIds(
+                existing.stream().map(Transaction::getTransactionId).toList());
+        Map<TransactionId, List<PostingLeg>> legs = new HashMap<>();
+        for (Transaction transaction : existing) {
+            List<LedgerEntry> posted = entries.get(transaction.getTransactionId());
+            legs.put(transaction.getTransactionId(), posted != null || transaction.getStatus() == TransactionStatus.COMPLETED
+                    ? toLegs(posted == null ? List.of() : posted) : storedLegs(transaction));
+        }
+        return legs;
+    }
+
+    private static List<PostingLeg> toLegs(List<LedgerEntry> entries) {
+        return entries.stream().map(entry -> PostingLeg.builder()
+                .accountId(entry.getAccountId())
+                .direction(entry.getDirection())
+                .amount(entry.getAmount())
+                .build()).toList();
+    }
+
+    /** Net minor units per (account, direction), so leg order and splitting do not matter. */
+    private Map<String, Long> legTotals(List<PostingLeg> legs) {
+        Map<String, Long> totals = new HashMap<>();
+        for (PostingLeg leg : legs) {
+            String key = systemAccountRegistry.primaryOf(leg.getAccountId()).value() + ":" + leg.getDirection();
+            totals.merge(key, leg.getAmount().minorUnits(), Long::sum);
+        }
+        return totals;
+    }
+
+    private Optional<PostingResult> replay(PostingCommand command) {
+        return findTransactionByReferencePort.findByReferenceId(command.getReferenceId())
+                .filter(existing -> !isQueuedAs(command, existing))
+                .map(existing -> replay(command, existing));
+    }
+}
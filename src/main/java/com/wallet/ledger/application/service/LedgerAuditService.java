@@ -0,0 +1,49 @@
+package com.wallet.ledger.application.service;
+
+import com.wallet.ledger.application.port.AccountBalanceSnapshot;
+import com.wallet.ledger.application.port.AuditLedgerSequencePort;
+import com.wallet.ledger.application.port.AuditLedgerSequencePort.LatestAccountEntry;
+import com.wallet.ledger.application.port.AuditLedgerSequencePort.SequenceGap;
+import com.wallet.ledger.application.port.LoadAccountBalancesPort;
+import com.wallet.ledger.domain.valueobject.AccountId;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Audit of one account's entry chain: account_seq must run 1..N without gaps, and the materialized
+ * account_balance row must point at entry N with the same balance.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LedgerAuditService {
+
+    private final AuditLedgerSequencePort auditLedgerSequencePort;
+    private final LoadAccountBalancesPort loadAccountBalancesPort;
+
+    public AccountSequenceAudit auditAccount(AccountId accountId) {
+        log.debug("Sequence audit accountId={}", accountId.value());
+        List<SequenceGap> gaps = auditLedgerSequencePort.findSequenceGaps(accountId);
+        LatestAccountEntry latest = auditLedgerSequencePort.findLatestEntry(accountId)
+                .orElse(new LatestAccountEntry(0, BigDecimal.ZERO));
+        AccountBalanceSnapshot snapshot = loadAccountBalancesPort.loadSnapshots(Set.of(accountId)).get(accountId);
+        boolean consistent = gaps.isEmpty()
+                && snapshot.lastAccountSeq() == latest.accountSeq()
+                && snapshot.balance().toBigDecimal().compareTo(latest.balanceAfter()) == 0;
+        if (!consistent) {
+            log.warn("Sequence audit failed accountId={} gaps={} ledgerSeq={} balanceSeq={}",
+                    accountId.value(), gaps.size(), latest.accountSeq(), snapshot.lastAccountSeq());
+        }
+        return new AccountSequenceAudit(accountId.value().toString(), latest.accountSeq(), latest.balanceAfter(),
+                snapshot.lastAccountSeq(), snapshot.balance().toBigDecimal(), gaps, consistent);
+    }
+
+    public record AccountSequenceAudit(String accountId, long ledgerSeq, BigDecimal ledgerBalance,
+                                       long balanceSeq, BigDecimal balance, List<SequenceGap> gaps, boolean consistent) {
+    }
+}
@@ -1,108 +1,315 @@
 package com.wallet.ledger.application.service;
 
 import com.wallet.ledger.application.port.*;
-import com.wallet.ledger.domain.entity.LedgerEntry;
 import com.wallet.ledger.domain.entity.Transaction;
+import com.wallet.ledger.domain.exception.DomainException;
 import com.wallet.ledger.domain.exception.InsufficientBalanceException;
-import com.wallet.ledger.domain.exception.InvalidPostingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import com.wallet.ledger.domain.valueobject.*;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.Instant;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
- * Ledger posting engine. Double-entry: debits = credits; computes balance_after; persists atomically.
+ * Ledger posting engine. Double-entry: debits = credits; computes balance_after; persists entries and the
+ * materialized account_balance rows (compare-and-set on version) atomically. When the engine owns the transaction,
+ * transient failures (version conflict, deadlock, lock timeout, serialization failure) re-run the whole posting via
+ * {@link TransientFailureRetryExecutor}; a posting inside a caller transaction fails that transaction instead. All
+ * leg accounts are row-locked first, in one statement and in account_id order, so concurrent postings serialize per
+ * account without deadlocking; callers do not lock accounts themselves.
+ * In GROUP_COMMIT mode, postings made outside a caller transaction are handed to {@link GroupCommitPostingPipeline}
+ * and committed together with other concurrent postings; postings inside a caller transaction always join it.
+ * In PARTITIONED mode every posting goes through {@link PartitionedPostingExecutor}. A reference id that this node
+ * may have posted recently is first checked through {@link IdempotencyGuard} and replayed instead of posted again.
  */
 @Service
 @RequiredArgsConstructor
 public class LedgerPostingEngine {
 
     private static final Logger log = LoggerFactory.getLogger(LedgerPostingEngine.class);
-    private static final int AMOUNT_SCALE = 4;
 
-    @Value("${ledger.system-accounts.master}")
-    private String systemMasterAccountIdValue;
+    /** Parsed once so postings compare AccountId values instead of formatting UUIDs. */
+    private AccountId systemMasterAccountId;
+
+    @Value("${ledger.posting.mode:DIRECT}")
+    private PostingMode postingMode;
+
+    @Value("${ledger.posting.lock-timeout-ms:2000}")
+    private long lockTimeoutMs;
+
+    @Value("${ledger.locking.jvm-stripes.max-batch-accounts:16}")
+    private int maxStripedBatchAccounts;
 
+    private final LockAccountPort lockAccountPort;
     private final LoadAccountBalancesPort loadAccountBalancesPort;
     private final PersistPostingPort persistPostingPort;
+    private final UpdateAccountBalancesPort updateAccountBalancesPort;
+    private final BalanceCache balanceCache;
+    private final GroupCommitPostingPipeline groupCommitPostingPipeline;
+    private final PartitionedPostingExecutor partitionedPostingExecutor;
+    private final AccountLockManager accountLockManager;
+    private final TransientFailureRetryExecutor transientFailureRetryExecutor;
+    private final IdempotencyGuard idempotencyGuard;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final HotAccountProfiler hotAccountProfiler;
+
+    /** Registered once per (type, outcome or reason) instead of a registry lookup on every posting. */
+    private final Map<PostingMeterKey, Timer> postingTimers = new ConcurrentHashMap<>();
+    private final Map<PostingMeterKey, Counter> rejections = new ConcurrentHashMap<>();
+
+    @Value("${ledger.system-accounts.master}")
+    void setSystemMasterAccountId(String value) {
+        this.systemMasterAccountId = AccountId.fromString(value);
+    }
 
-    @Transactional
     public PostingResult post(PostingCommand command) {
         log.debug("Posting txnId={} type={} legs={}", command.getTransactionId().value(), command.getTransactionType(), command.getLegs().size());
-        validateLegsPresent(command);
-        validateDebitsEqualCredits(command);
+        long start = System.nanoTime();
+        String outcome = "posted";
+        try {
+            PostingBatch.validate(command);
+            Optional<PostingResult> completed = idempotencyGuard.findCompleted(command);
+            if (completed.isPresent()) {
+                outcome = "replayed";
+                return completed.get();
+            }
+            PostingResult result = dispatch(command);
+            idempotencyGuard.recordPosted(command);
+            return result;
+        } catch (RuntimeException e) {
+            outcome = outcome(e);
+            if (e instanceof InsufficientBalanceException) rejected(command.getTransactionType(), outcome);
+            throw e;
+        } finally {
+            postingTimer(command.getTransactionType(), outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer postingTimer(TransactionType type, String outcome) {
+        return postingTimers.computeIfAbsent(new PostingMeterKey(type, outcome), key -> Timer.builder("ledger.posting")
+                .description("LedgerPostingEngine.post latency (validation, idempotency check, locks, write, commit)")
+                .tag("type", key.type().name())
+                .tag("outcome", key.outcome())
+                .register(meterRegistry));
+    }
+
+    private static String outcome(RuntimeException e) {
+        if (e instanceof InsufficientBalanceException) return "insufficient_balance";
+        if (e instanceof DomainException || e instanceof IllegalArgumentException || e instanceof ArithmeticException) return "invalid";
+        if (e instanceof ConcurrencyFailureException) return "busy";
+        return "error";
+    }
+
+    private void rejected(TransactionType type, String reason) {
+        rejections.computeIfAbsent(new PostingMeterKey(type, reason), key -> meterRegistry.counter("ledger.posting.rejected",
+                "type", key.type().name(), "reason", key.outcome())).increment();
+    }
+
+    private PostingResult dispatch(PostingCommand command) {
+        if (postingMode == PostingMode.PARTITIONED) {
+            return partitionedPostingExecutor.post(command);
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Joins the caller's transaction; a balance version conflict rolls back the caller's whole unit.
+            return postDirect(command);
+        }
+        if (postingMode == PostingMode.GROUP_COMMIT) {
+            // A failed batch surfaces here per caller; retries resubmit into the next batch.
+            return transientFailureRetryExecutor.execute(command, () -> groupCommitPostingPipeline.submit(command));
+        }
+        // Queue on the in-JVM account stripes before borrowing a connection for the transaction.
         Set<AccountId> accountIds = command.getLegs().stream().map(PostingLeg::getAccountId).collect(Collectors.toSet());
-        Map<AccountId, BigDecimal> balances = loadAccountBalancesPort.loadBalances(accountIds);
-        return buildAndPersist(command, balances);
+        return transientFailureRetryExecutor.execute(command, () -> accountLockManager.withLocks(accountIds,
+                () -> transactionTemplate.execute(status -> postDirect(command))));
     }
 
-    private PostingResult buildAndPersist(PostingCommand command, Map<AccountId, BigDecimal> balances) {
-        Transaction txn = Transaction.builder()
-                .transactionId(command.getTransactionId())
-                .transactionType(command.getTransactionType())
-                .status(TransactionStatus.COMPLETED)
-                .referenceId(command.getReferenceId())
-                .createdAt(Instant.now())
-                .serviceBundleId(command.getServiceBundleId())
-                .provisioningReference(command.getProvisioningReference())
-                .build();
-        List<LedgerEntry> entries = new ArrayList<>();
-        Instant now = Instant.now();
-        for (PostingLeg leg : command.getLegs()) {
-            BigDecimal currentBalance = balances.getOrDefault(leg.getAccountId(), BigDecimal.ZERO).setScale(AMOUNT_SCALE, RoundingMode.HALF_UP);
-            BigDecimal amount = leg.getAmount().setScale(AMOUNT_SCALE, RoundingMode.HALF_UP);
-            BigDecimal balanceAfter = leg.getDirection() == EntryDirection.DEBIT
-                    ? currentBalance.subtract(amount)
-                    : currentBalance.add(amount);
-            boolean allowedNegative = leg.getAccountId().value().toString().equals(systemMasterAccountIdValue);
-            if (balanceAfter.compareTo(BigDecimal.ZERO) < 0 && !allowedNegative) {
-                throw new InsufficientBalanceException(
-                        "Insufficient balance for account " + leg.getAccountId().value() + ": current=" + currentBalance + ", debit=" + amount);
+    /**
+     * Posts many commands as one unit. Reference ids are checked in one lookup and committed ones are replayed. The
+     * unit takes one lock over all involved accounts (in account order; in-JVM stripes only up to max-batch-accounts
+     * accounts), loads balances once, evaluates the commands against running balances in memory and writes all
+     * entries in one set-based insert. When atomic, a rejected command aborts the batch and nothing is written;
+     * otherwise rejected commands are skipped and the rest commit together. Must be called outside a transaction. In
+     * PARTITIONED mode commands are posted one by one and atomic batches are refused.
+     */
+    public BatchPostingResult postBatch(List<PostingCommand> commands, boolean atomic) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Batch postings open their own transaction");
+        }
+        BatchPostingResult.Item[] items = new BatchPostingResult.Item[commands.size()];
+        Set<String> references = new HashSet<>();
+        for (int i = 0; i < commands.size(); i++) {
+            PostingCommand command = commands.get(i);
+            try {
+                PostingBatch.validate(command);
+                if (!references.add(command.getReferenceId())) {
+                    items[i] = BatchPostingResult.Item.rejected("Duplicate referenceId in batch: " + command.getReferenceId());
+                }
+            } catch (DomainException | ArithmeticException e) {
+                items[i] = BatchPostingResult.Item.rejected(rejection(e));
+            }
+        }
+        if (atomic && Arrays.stream(items).anyMatch(Objects::nonNull)) {
+            return aborted(items);
+        }
+        if (postingMode == PostingMode.PARTITIONED) {
+            if (atomic) {
+                throw new IllegalArgumentException("Atomic batches are not supported in PARTITIONED posting mode");
             }
-            entries.add(LedgerEntry.builder()
-                    .entryId(EntryId.generate())
-                    .transactionId(command.getTransactionId())
-                    .accountId(leg.getAccountId())
-                    .direction(leg.getDirection())
-                    .amount(amount)
-                    .balanceAfter(balanceAfter)
-                    .createdAt(now)
-                    .build());
-        }
-        persistPostingPort.persist(txn, entries);
-        log.debug("Posted txnId={} entries={}", txn.getTransactionId().value(), entries.size());
-        return PostingResult.of(txn);
+            return postEach(commands, items);
+        }
+        String type = commands.isEmpty() ? "BATCH" : commands.get(0).getTransactionType().name();
+        BatchPostingResult result = transientFailureRetryExecutor.executeBatch(type, "batch of " + commands.size(),
+                () -> postBatchOnce(commands, items.clone(), atomic));
+        for (int i = 0; i < commands.size(); i++) {
+            if (result.items().get(i).status() == BatchPostingResult.Status.POSTED) {
+                idempotencyGuard.recordPosted(commands.get(i));
+            }
+        }
+        log.debug("Posted batch size={} posted={} atomic={}", commands.size(), result.count(BatchPostingResult.Status.POSTED), atomic);
+        return result;
     }
 
-    private void validateLegsPresent(PostingCommand command) {
-        if (command.getLegs() == null || command.getLegs().isEmpty()) {
-            throw new InvalidPostingException("Posting must have at least one leg");
+    private BatchPostingResult postBatchOnce(List<PostingCommand> commands, BatchPostingResult.Item[] items, boolean atomic) {
+        List<String> references = new ArrayList<>();
+        for (int i = 0; i < commands.size(); i++) {
+            if (items[i] == null) references.add(commands.get(i).getReferenceId());
+        }
+        Map<String, Transaction> committed = idempotencyGuard.findCommitted(references);
+        List<Integer> toPost = new ArrayList<>();
+        List<Integer> toReplay = new ArrayList<>();
+        Set<AccountId> accountIds = new HashSet<>();
+        for (int i = 0; i < commands.size(); i++) {
+            if (items[i] != null) continue;
+            PostingCommand command = commands.get(i);
+            Transaction existing = committed.get(command.getReferenceId());
+            if (existing == null || idempotencyGuard.isQueuedAs(command, existing)) {
+                toPost.add(i);
+                command.getLegs().forEach(leg -> accountIds.add(leg.getAccountId()));
+            } else {
+                toReplay.add(i);
+            }
         }
+        Map<TransactionId, List<PostingLeg>> storedLegs = toReplay.isEmpty() ? Map.of()
+                : idempotencyGuard.storedLegs(toReplay.stream().map(i -> committed.get(commands.get(i).getReferenceId())).toList());
+        boolean rejected = false;
+        for (int i : toReplay) {
+            PostingCommand command = commands.get(i);
+            Transaction existing = committed.get(command.getReferenceId());
+            try {
+                items[i] = BatchPostingResult.Item.replayed(
+                        idempotencyGuard.replay(command, existing, storedLegs.get(existing.getTransactionId())));
+            } catch (IllegalArgumentException | DomainException e) {
+                items[i] = BatchPostingResult.Item.rejected(e.getMessage());
+                rejected = true;
+            }
+        }
+        if (atomic && rejected) return aborted(items);
+        if (toPost.isEmpty()) return new BatchPostingResult(true, List.of(items));
+        Supplier<BatchPostingResult> write = () -> transactionTemplate.execute(status -> writeBatch(commands, toPost, accountIds, items, atomic));
+        // A large batch would hold most stripes at once and stall every single posting on this node behind it;
+        // it relies on the ordered DB locks alone.
+        return accountIds.size() > maxStripedBatchAccounts ? write.get() : accountLockManager.withLocks(accountIds, write);
     }
 
-    private void validateDebitsEqualCredits(PostingCommand command) {
-        BigDecimal totalDebits = command.getLegs().stream()
-                .filter(l -> l.getDirection() == EntryDirection.DEBIT)
-                .map(l -> l.getAmount().setScale(AMOUNT_SCALE, RoundingMode.HALF_UP))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal totalCredits = command.getLegs().stream()
-                .filter(l -> l.getDirection() == EntryDirection.CREDIT)
-                .map(l -> l.getAmount().setScale(AMOUNT_SCALE, RoundingMode.HALF_UP))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        if (totalDebits.compareTo(totalCredits) != 0) {
-            throw new InvalidPostingException("Debits (" + totalDebits + ") must equal credits (" + totalCredits + ")");
+    private BatchPostingResult writeBatch(List<PostingCommand> commands, List<Integer> toPost, Set<AccountId> accountIds,
+                                          BatchPostingResult.Item[] items, boolean atomic) {
+        lockAll(accountIds);
+        PostingBatch batch = new PostingBatch(loadAccountBalancesPort.loadSnapshots(accountIds), systemMasterAccountId);
+        for (int i : toPost) {
+            try {
+                items[i] = BatchPostingResult.Item.posted(PostingResult.of(batch.add(commands.get(i)).transaction()));
+            } catch (DomainException | ArithmeticException e) {
+                // An overflowing amount or balance rejects its own item only, like a business-rule failure.
+                items[i] = BatchPostingResult.Item.rejected(rejection(e));
+                if (e instanceof InsufficientBalanceException) rejected(commands.get(i).getTransactionType(), "insufficient_balance");
+                if (atomic) return aborted(items);
+            }
         }
+        if (!batch.isEmpty()) {
+            persistPostingPort.persistAll(batch.transactions(), batch.entries());
+            updateAccountBalancesPort.compareAndSet(batch.balanceUpdates());
+            hotAccountProfiler.onWritten(batch.entries());
+            balanceCache.onPosted(batch.resultingSnapshots().values());
+        }
+        return new BatchPostingResult(true, List.of(items));
+    }
+
+    /** Per-item fallback for PARTITIONED mode: each command through the normal path. */
+    private BatchPostingResult postEach(List<PostingCommand> commands, BatchPostingResult.Item[] items) {
+        for (int i = 0; i < commands.size(); i++) {
+            if (items[i] != null) continue;
+            try {
+                items[i] = BatchPostingResult.Item.posted(post(commands.get(i)));
+            } catch (DomainException | IllegalArgumentException | ArithmeticException | ConcurrencyFailureException e) {
+                items[i] = BatchPostingResult.Item.rejected(rejection(e));
+            }
+        }
+        return new BatchPostingResult(true, List.of(items));
+    }
+
+    private static String rejection(RuntimeException e) {
+        return e instanceof ArithmeticException ? "Amount out of range" : e.getMessage();
+    }
+
+    /** Nothing written: rejected and replayed items keep their outcome, every other item is marked aborted. */
+    private static BatchPostingResult aborted(BatchPostingResult.Item[] items) {
+        List<BatchPostingResult.Item> result = new ArrayList<>(items.length);
+        for (BatchPostingResult.Item item : items) {
+            boolean keep = item != null && item.status() != BatchPostingResult.Status.POSTED;
+            result.add(keep ? item : BatchPostingResult.Item.aborted());
+        }
+        return new BatchPostingResult(false, result);
+    }
+
+    private PostingResult postDirect(PostingCommand command) {
+        Set<AccountId> accountIds = command.getLegs().stream().map(PostingLeg::getAccountId).collect(Collectors.toSet());
+        lockAll(accountIds);
+        Map<AccountId, AccountBalanceSnapshot> snapshots = loadAccountBalancesPort.loadSnapshots(accountIds);
+        PostingBatch batch = new PostingBatch(snapshots, systemMasterAccountId);
+        PreparedPosting posting = batch.add(command);
+        persistPostingPort.persist(posting.transaction(), posting.entries());
+        updateAccountBalancesPort.compareAndSet(batch.balanceUpdates());
+        hotAccountProfiler.onWritten(posting.entries());
+        balanceCache.onPosted(batch.resultingSnapshots().values());
+        log.debug("Posted txnId={} entries={}", posting.transaction().getTransactionId().value(), posting.entries().size());
+        return PostingResult.of(posting.transaction());
+    }
+
+    /** DB row locks on all leg accounts, with the wait reported to {@link HotAccountProfiler}. */
+    private void lockAll(Set<AccountId> accountIds) {
+        long start = System.nanoTime();
+        try {
+            lockAccountPort.lockAllInOrder(accountIds, Duration.ofMillis(lockTimeoutMs));
+        } catch (PessimisticLockingFailureException e) {
+            hotAccountProfiler.onLockTimeout(accountIds, System.nanoTime() - start);
+            throw e;
+        }
+        hotAccountProfiler.onLocked(accountIds, System.nanoTime() - start);
+    }
+
+    private record PostingMeterKey(TransactionType type, String outcome) {
     }
 }
@@ -0,0 +1,404 @@
+package com.wallet.ledger.application.service;
+
+import com.wallet.ledger.application.port.AccountBalanceSnapshot;
+import com.wallet.ledger.application.port.LoadAccountBalancesPort;
+import com.wallet.ledger.application.port.PersistPostingPort;
+import com.wallet.ledger.application.port.PostingCommand;
+import com.wallet.ledger.application.port.PostingLeg;
+import com.wallet.ledger.application.port.PostingResult;
+import com.wallet.ledger.application.port.UpdateAccountBalancesPort;
+import com.wallet.ledger.domain.exception.DomainException;
+import com.wallet.ledger.domain.valueobject.AccountId;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Single-writer posting execution. Accounts are hashed to a fixed set of partitions; each partition is owned by one
+ * thread with a bounded ring buffer and keeps the authoritative running balances of its accounts in memory, so the
+ * balance read and the insufficient-funds check need neither SQL nor row locks (a balance is loaded from the
+ * ledger once, on first touch).
+ * <p>
+ * Coordination:
+ * <ul>
+ *   <li>Single-partition postings run on the owning thread; consecutive ones are committed in one transaction.</li>
+ *   <li>Multi-partition postings are enqueued on every involved ring under one sequencer lock, so all rings see
+ *   them in the same relative order. Each involved thread parks on the task; once all have arrived, the lowest
+ *   partition executes it against the parked partitions' balances.</li>
+ *   <li>Postings made inside a caller transaction (e.g. wallet creation) park the involved partitions and run on
+ *   the caller thread; the partitions stay parked until that transaction completes, and new balances are only
+ *   applied if it commits.</li>
+ * </ul>
+ * Assumes this node is the only writer of the ledger. A write from elsewhere makes the cached version stale: the
+ * next posting on that account fails its compare-and-set, which evicts the balances of the failed postings' accounts
+ * so the following attempt reloads them. Each partition keeps at most max-cached-accounts balances (LRU).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PartitionedPostingExecutor {
+
+    private final LoadAccountBalancesPort loadAccountBalancesPort;
+    private final PersistPostingPort persistPostingPort;
+    private final UpdateAccountBalancesPort updateAccountBalancesPort;
+    private final BalanceCache balanceCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ledger.posting.mode:DIRECT}")
+    private PostingMode postingMode;
+
+    @Value("${ledger.posting.partitioned.partitions:8}")
+    private int partitionCount;
+
+    @Value("${ledger.posting.partitioned.ring-capacity:1024}")
+    private int ringCapacity;
+
+    @Value("${ledger.posting.partitioned.max-batch-size:64}")
+    private int maxBatchSize;
+
+    @Value("${ledger.posting.partitioned.coordination-timeout-ms:5000}")
+    private long coordinationTimeoutMs;
+
+    @Value("${ledger.posting.partitioned.max-cached-accounts:100000}")
+    private int maxCachedAccounts;
+
+    /** Parsed once so postings compare AccountId values instead of formatting UUIDs. */
+    private AccountId systemMasterAccountId;
+
+    /** Serializes enqueueing of multi-partition tasks so every ring sees them in the same relative order. */
+    private final ReentrantLock sequencer = new ReentrantLock();
+    private Partition[] partitions;
+    private volatile boolean running;
+
+    @Value("${ledger.system-accounts.master}")
+    void setSystemMasterAccountId(String value) {
+        this.systemMasterAccountId = AccountId.fromString(value);
+    }
+
+    @PostConstruct
+    void start() {
+        if (postingMode != PostingMode.PARTITIONED) return;
+        partitions = new Partition[partitionCount];
+        running = true;
+        for (int i = 0; i < partitionCount; i++) {
+            Partition partition = new Partition(i, new ArrayBlockingQueue<>(ringCapacity), lruBalances(maxCachedAccounts));
+            Thread thread = new Thread(() -> runPartition(partition), "ledger-partition-" + i);
+            thread.setDaemon(true);
+            partition.thread = thread;
+            partitions[i] = partition;
+            thread.start();
+        }
+        log.info("Partitioned posting executor started partitions={} ringCapacity={} maxCachedAccounts={}",
+                partitionCount, ringCapacity, maxCachedAccounts);
+    }
+
+    private static Map<AccountId, AccountBalanceSnapshot> lruBalances(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<AccountId, AccountBalanceSnapshot> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (partitions == null) return;
+        running = false;
+        for (Partition partition : partitions) {
+            partition.thread.interrupt();
+        }
+        for (Partition partition : partitions) {
+            partition.thread.join(TimeUnit.SECONDS.toMillis(10));
+            Task left;
+            while ((left = partition.ring.poll()) != null) {
+                left.result.completeExceptionally(new IllegalStateException("Partitioned posting executor stopped"));
+                left.released.countDown();
+            }
+        }
+    }
+
+    public PostingResult post(PostingCommand command) {
+        if (!running) {
+            throw new IllegalStateException("Partitioned posting executor is not running");
+        }
+        int[] involved = partitionsOf(command);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return postInCallerTransaction(command, involved);
+        }
+        Task task = new Task(command, involved, false);
+        enqueue(task);
+        try {
+            return task.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for posting " + command.getTransactionId().value(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private PostingResult postInCallerTransaction(PostingCommand command, int[] involved) {
+        HeldPartitions held = heldPartitions();
+        int[] missing = Arrays.stream(involved).filter(p -> !held.partitions.contains(p)).toArray();
+        if (missing.length > 0) {
+            Task task = new Task(command, missing, true);
+            enqueue(task);
+            held.tasks.add(task);
+            boolean arrived;
+            try {
+                arrived = task.arrived.await(coordinationTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                arrived = false;
+            }
+            if (!arrived) {
+                throw new CannotAcquireLockException("Timed out parking ledger partitions " + Arrays.toString(missing)
+                        + " for txnId=" + command.getTransactionId().value());
+            }
+            for (int p : missing) held.partitions.add(p);
+        }
+        command.getLegs().forEach(leg -> held.touched.add(leg.getAccountId()));
+        PostingBatch batch = new PostingBatch(snapshot(List.of(command), held.pendingBalances), systemMasterAccountId);
+        PreparedPosting posting = batch.add(command);
+        persistPostingPort.persist(posting.transaction(), posting.entries());
+        updateAccountBalancesPort.compareAndSet(batch.balanceUpdates());
+        balanceCache.onPosted(batch.resultingSnapshots().values());
+        held.pendingBalances.putAll(batch.resultingSnapshots());
+        return PostingResult.of(posting.transaction());
+    }
+
+    private HeldPartitions heldPartitions() {
+        HeldPartitions held = (HeldPartitions) TransactionSynchronizationManager.getResource(this);
+        if (held == null) {
+            held = new HeldPartitions();
+            TransactionSynchronizationManager.bindResource(this, held);
+            TransactionSynchronizationManager.registerSynchronization(held);
+        }
+        return held;
+    }
+
+    private void enqueue(Task task) {
+        try {
+            if (task.partitions.length == 1) {
+                partitions[task.partitions[0]].ring.put(task);
+                return;
+            }
+            sequencer.lockInterruptibly();
+            try {
+                for (int p : task.partitions) {
+                    partitions[p].ring.put(task);
+                }
+            } finally {
+                sequencer.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while enqueueing posting " + task.command.getTransactionId().value(), e);
+        }
+    }
+
+    private void runPartition(Partition partition) {
+        List<Task> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                Task task = partition.ring.poll(100, TimeUnit.MILLISECONDS);
+                if (task == null) continue;
+                if (task.isLocal()) {
+                    batch.add(task);
+                    Task next;
+                    while (batch.size() < maxBatchSize && (next = partition.ring.peek()) != null && next.isLocal()) {
+                        batch.add(partition.ring.poll());
+                    }
+                    execute(batch);
+                } else {
+                    coordinate(partition, task);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Partition {} failed to execute {} postings", partition.index, batch.size(), e);
+                batch.forEach(t -> t.result.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void coordinate(Partition partition, Task task) throws InterruptedException {
+        task.arrived.countDown();
+        if (!task.foreign && task.partitions[0] == partition.index) {
+            task.arrived.await();
+            try {
+                execute(List.of(task));
+            } finally {
+                task.released.countDown();
+            }
+        } else {
+            task.released.await();
+        }
+    }
+
+    /**
+     * Run tasks whose partitions are all owned by, or parked for, the current thread: evaluate against the
+     * in-memory balances, write them in one transaction, then apply the new balances. Falls back to one
+     * transaction per task if the shared one fails.
+     */
+    private void execute(List<Task> tasks) {
+        Write write;
+        try {
+            write = transactionTemplate.execute(status -> write(tasks));
+        } catch (RuntimeException e) {
+            // Possibly a stale cached version (another writer): reload these accounts on the next attempt.
+            tasks.forEach(t -> evict(t.command));
+            if (tasks.size() == 1) {
+                tasks.get(0).result.completeExceptionally(e);
+                return;
+            }
+            log.warn("Partition batch of {} failed, retrying postings individually: {}", tasks.size(), e.getMessage());
+            tasks.forEach(t -> execute(List.of(t)));
+            return;
+        }
+        write.balances().forEach((accountId, balance) -> partitions[partitionOf(accountId)].balances.put(accountId, balance));
+        write.outcomes().forEach(Runnable::run);
+    }
+
+    private Write write(List<Task> tasks) {
+        List<PostingCommand> commands = tasks.stream().map(t -> t.command).toList();
+        PostingBatch batch = new PostingBatch(snapshot(commands, Map.of()), systemMasterAccountId);
+        List<Runnable> outcomes = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            try {
+                PreparedPosting posting = batch.add(task.command);
+                PostingResult result = PostingResult.of(posting.transaction());
+                outcomes.add(() -> task.result.complete(result));
+            } catch (DomainException | ArithmeticException e) {
+                outcomes.add(() -> task.result.completeExceptionally(e));
+            }
+        }
+        if (!batch.isEmpty()) {
+            persistPostingPort.persistAll(batch.transactions(), batch.entries());
+            updateAccountBalancesPort.compareAndSet(batch.balanceUpdates());
+            balanceCache.onPosted(batch.resultingSnapshots().values());
+        }
+        return new Write(batch.resultingSnapshots(), outcomes);
+    }
+
+    /**
+     * Current balances of every account in the commands: uncommitted balances of the caller transaction first,
+     * then the owning partition's in-memory balance, then (first touch only) the ledger.
+     */
+    private Map<AccountId, AccountBalanceSnapshot> snapshot(List<PostingCommand> commands, Map<AccountId, AccountBalanceSnapshot> pending) {
+        Map<AccountId, AccountBalanceSnapshot> balances = new HashMap<>();
+        Set<AccountId> unknown = new HashSet<>();
+        for (PostingCommand command : commands) {
+            for (PostingLeg leg : command.getLegs()) {
+                AccountId accountId = leg.getAccountId();
+                AccountBalanceSnapshot balance = pending.get(accountId);
+                if (balance == null) balance = partitions[partitionOf(accountId)].balances.get(accountId);
+                if (balance != null) balances.put(accountId, balance);
+                else unknown.add(accountId);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            balances.putAll(loadAccountBalancesPort.loadSnapshots(unknown));
+        }
+        return balances;
+    }
+
+    private void evict(PostingCommand command) {
+        command.getLegs().forEach(leg -> partitions[partitionOf(leg.getAccountId())].balances.remove(leg.getAccountId()));
+    }
+
+    private int[] partitionsOf(PostingCommand command) {
+        return command.getLegs().stream().mapToInt(l -> partitionOf(l.getAccountId())).distinct().sorted().toArray();
+    }
+
+    private int partitionOf(AccountId accountId) {
+        return Math.floorMod(accountId.value().hashCode() * 0x9E3779B9, partitionCount);
+    }
+
+    private static final class Partition {
+        final int index;
+        final BlockingQueue<Task> ring;
+        /** Owned by this partition's thread; touched by other threads only while this one is parked on a task. */
+        final Map<AccountId, AccountBalanceSnapshot> balances;
+        Thread thread;
+
+        Partition(int index, BlockingQueue<Task> ring, Map<AccountId, AccountBalanceSnapshot> balances) {
+            this.index = index;
+            this.ring = ring;
+            this.balances = balances;
+        }
+    }
+
+    private static final class Task {
+        final PostingCommand command;
+        /** Involved partitions, distinct and ascending; the first one coordinates. */
+        final int[] partitions;
+        /** Executed by a caller thread inside its own transaction rather than by a partition thread. */
+        final boolean foreign;
+        final CountDownLatch arrived;
+        final CountDownLatch released = new CountDownLatch(1);
+        final CompletableFuture<PostingResult> result = new CompletableFuture<>();
+
+        Task(PostingCommand command, int[] partitions, boolean foreign) {
+            this.command = command;
+            this.partitions = partitions;
+            this.foreign = foreign;
+            this.arrived = new CountDownLatch(partitions.length);
+        }
+
+        boolean isLocal() {
+            return partitions.length == 1 && !foreign;
+        }
+    }
+
+    private record Write(Map<AccountId, AccountBalanceSnapshot> balances, List<Runnable> outcomes) {
+    }
+
+    /** Partitions parked for the current caller transaction; released when it completes. */
+    private final class HeldPartitions implements TransactionSynchronization {
+        final Set<Integer> partitions = new HashSet<>();
+        final List<Task> tasks = new ArrayList<>();
+        final Map<AccountId, AccountBalanceSnapshot> pendingBalances = new HashMap<>();
+        final Set<AccountId> touched = new HashSet<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(PartitionedPostingExecutor.this);
+            if (status == STATUS_COMMITTED) {
+                pendingBalances.forEach((accountId, balance) ->
+                        PartitionedPostingExecutor.this.partitions[partitionOf(accountId)].balances.put(accountId, balance));
+            } else {
+                touched.forEach(accountId -> PartitionedPostingExecutor.this.partitions[partitionOf(accountId)].balances.remove(accountId));
+            }
+            tasks.forEach(t -> t.released.countDown());
+        }
+    }
+}
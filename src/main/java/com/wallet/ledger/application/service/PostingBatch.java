@@ -0,0 +1,164 @@
+package com.wallet.ledger.application.service;
+
+import com.wallet.ledger.application.port.AccountBalanceSnapshot;
+import com.wallet.ledger.application.port.AccountBalanceUpdate;
+import com.wallet.ledger.application.port.PostingCommand;
+import com.wallet.ledger.application.port.PostingLeg;
+import com.wallet.ledger.domain.entity.LedgerEntry;
+import com.wallet.ledger.domain.entity.Transaction;
+import com.wallet.ledger.domain.exception.InsufficientBalanceException;
+import com.wallet.ledger.domain.exception.InvalidPostingException;
+import com.wallet.ledger.domain.valueobject.AccountId;
+import com.wallet.ledger.domain.valueobject.EntryDirection;
+import com.wallet.ledger.domain.valueobject.EntryId;
+import com.wallet.ledger.domain.valueobject.LedgerAmount;
+import com.wallet.ledger.domain.valueobject.TransactionStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates postings in memory against running account balances. Each accepted posting advances the balances
+ * seen by the next one, so several postings can be written in one DB transaction. A rejected posting leaves
+ * the running balances untouched. Every entry gets the next account_seq of its account. The batch also yields one
+ * account_balance compare-and-set per touched account, expecting the version it was seeded with. Amounts are
+ * fixed-point minor units ({@link LedgerAmount}); legs were rounded to scale 4 once when built, so the hot path does
+ * no BigDecimal arithmetic.
+ */
+public class PostingBatch {
+
+    private final Map<AccountId, AccountBalanceSnapshot> initial;
+    private final Map<AccountId, LedgerAmount> balances = new HashMap<>();
+    private final Map<AccountId, EntryId> lastEntries = new HashMap<>();
+    private final Map<AccountId, Long> sequences = new HashMap<>();
+    private final AccountId systemMasterAccountId;
+    private final List<PreparedPosting> postings = new ArrayList<>();
+
+    public PostingBatch(Map<AccountId, AccountBalanceSnapshot> snapshots, AccountId systemMasterAccountId) {
+        this.initial = Map.copyOf(snapshots);
+        this.systemMasterAccountId = systemMasterAccountId;
+        snapshots.forEach((accountId, snapshot) -> {
+            balances.put(accountId, snapshot.balance());
+            sequences.put(accountId, snapshot.lastAccountSeq());
+        });
+    }
+
+    /**
+     * Evaluate one posting: compute balance_after per leg and reject debits that would overdraw an account.
+     * Throws InvalidPostingException or InsufficientBalanceException without changing the batch.
+     */
+    public PreparedPosting add(PostingCommand command) {
+        validate(command);
+        Instant now = Instant.now();
+        Transaction txn = Transaction.builder()
+                .transactionId(command.getTransactionId())
+                .transactionType(command.getTransactionType())
+                .status(TransactionStatus.COMPLETED)
+                .referenceId(command.getReferenceId())
+                .createdAt(now)
+                .serviceBundleId(command.getServiceBundleId())
+                .provisioningReference(command.getProvisioningReference())
+                .build();
+        Map<AccountId, LedgerAmount> pending = new HashMap<>();
+        Map<AccountId, EntryId> pendingLastEntries = new HashMap<>();
+        Map<AccountId, Long> pendingSequences = new HashMap<>();
+        List<LedgerEntry> entries = new ArrayList<>(command.getLegs().size());
+        for (PostingLeg leg : command.getLegs()) {
+            LedgerAmount currentBalance = pending.getOrDefault(leg.getAccountId(), balances.getOrDefault(leg.getAccountId(), LedgerAmount.ZERO));
+            LedgerAmount amount = leg.getAmount();
+            LedgerAmount balanceAfter = leg.getDirection() == EntryDirection.DEBIT
+                    ? currentBalance.minus(amount)
+                    : currentBalance.plus(amount);
+            if (balanceAfter.isNegative() && !leg.getAccountId().equals(systemMasterAccountId)) {
+                throw new InsufficientBalanceException(
+                        "Insufficient balance for account " + leg.getAccountId().value() + ": current=" + currentBalance + ", debit=" + amount);
+            }
+            EntryId entryId = EntryId.generate();
+            long accountSeq = pendingSequences.getOrDefault(leg.getAccountId(), sequences.getOrDefault(leg.getAccountId(), 0L)) + 1;
+            pending.put(leg.getAccountId(), balanceAfter);
+            pendingLastEntries.put(leg.getAccountId(), entryId);
+            pendingSequences.put(leg.getAccountId(), accountSeq);
+            entries.add(LedgerEntry.builder()
+                    .entryId(entryId)
+                    .transactionId(command.getTransactionId())
+                    .accountId(leg.getAccountId())
+                    .direction(leg.getDirection())
+                    .amount(amount)
+                    .balanceAfter(balanceAfter)
+                    .accountSeq(accountSeq)
+                    .createdAt(now)
+                    .build());
+        }
+        balances.putAll(pending);
+        lastEntries.putAll(pendingLastEntries);
+        sequences.putAll(pendingSequences);
+        PreparedPosting prepared = new PreparedPosting(txn, entries);
+        postings.add(prepared);
+        return prepared;
+    }
+
+    /** One compare-and-set per account touched by an accepted posting, ordered by account id. */
+    public List<AccountBalanceUpdate> balanceUpdates() {
+        return lastEntries.keySet().stream()
+                .sorted(Comparator.comparing(AccountId::value))
+                .map(id -> new AccountBalanceUpdate(id, versionOf(id), balances.get(id), lastEntries.get(id), sequences.get(id)))
+                .toList();
+    }
+
+    /** Balances of touched accounts as they will read once {@link #balanceUpdates()} has been applied. */
+    public Map<AccountId, AccountBalanceSnapshot> resultingSnapshots() {
+        Map<AccountId, AccountBalanceSnapshot> result = new HashMap<>();
+        lastEntries.forEach((id, entryId) -> result.put(id, new AccountBalanceSnapshot(id, balances.get(id), versionOf(id) + 1, entryId,
+                sequences.get(id))));
+        return result;
+    }
+
+    private long versionOf(AccountId accountId) {
+        AccountBalanceSnapshot snapshot = initial.get(accountId);
+        return snapshot != null ? snapshot.version() : 0;
+    }
+
+    /** Postings accepted so far, in evaluation order. */
+    public List<PreparedPosting> getPostings() {
+        return Collections.unmodifiableList(postings);
+    }
+
+    /** Transaction rows of the accepted postings. */
+    public List<Transaction> transactions() {
+        return postings.stream().map(PreparedPosting::transaction).toList();
+    }
+
+    /** Ledger entries of all accepted postings, in evaluation order. */
+    public List<LedgerEntry> entries() {
+        return postings.stream().flatMap(p -> p.entries().stream()).toList();
+    }
+
+    public boolean isEmpty() {
+        return postings.isEmpty();
+    }
+
+    /** Structural checks that need no balances: at least one leg, debits equal credits. Single pass over the legs. */
+    public static void validate(PostingCommand command) {
+        if (command.getLegs() == null || command.getLegs().isEmpty()) {
+            throw new InvalidPostingException("Posting must have at least one leg");
+        }
+        long totalDebits = 0;
+        long totalCredits = 0;
+        for (PostingLeg leg : command.getLegs()) {
+            if (leg.getDirection() == EntryDirection.DEBIT) {
+                totalDebits = Math.addExact(totalDebits, leg.getAmount().minorUnits());
+            } else {
+                totalCredits = Math.addExact(totalCredits, leg.getAmount().minorUnits());
+            }
+        }
+        if (totalDebits != totalCredits) {
+            throw new InvalidPostingException("Debits (" + LedgerAmount.ofMinorUnits(totalDebits) + ") must equal credits ("
+                    + LedgerAmount.ofMinorUnits(totalCredits) + ")");
+        }
+    }
+}
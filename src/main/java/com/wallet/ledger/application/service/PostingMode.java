@@ -0,0 +1,14 @@
+package com.wallet.ledger.application.service;
+
+/** Execution mode of the ledger posting engine (ledger.posting.mode). */
+public enum PostingMode {
+    /** One DB transaction per posting, executed on the caller thread. */
+    DIRECT,
+    /** Concurrent postings are queued briefly and committed together in one DB transaction. */
+    GROUP_COMMIT,
+    /**
+     * Accounts are hashed to partitions, each owned by one writer thread that keeps balances in memory.
+     * Assumes this node is the only writer of the ledger.
+     */
+    PARTITIONED
+}
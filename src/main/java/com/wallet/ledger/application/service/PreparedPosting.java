@@ -0,0 +1,10 @@
+package com.wallet.ledger.application.service;
+
+import com.wallet.ledger.domain.entity.LedgerEntry;
+import com.wallet.ledger.domain.entity.Transaction;
+
+import java.util.List;
+
+/** A posting evaluated in memory (balance_after computed, balances checked), ready to be persisted. */
+public record PreparedPosting(Transaction transaction, List<LedgerEntry> entries) {
+}
@@ -3,6 +3,7 @@ package com.wallet.ledger.application.service;
 import com.wallet.ledger.application.port.*;
 import com.wallet.ledger.domain.entity.Account;
 import com.wallet.ledger.domain.entity.ServiceBundle;
+import com.wallet.ledger.domain.entity.Transaction;
 import com.wallet.ledger.domain.entity.ProvisioningService;
 import com.wallet.ledger.domain.valueobject.AmountFilter;
 import com.wallet.ledger.domain.valueobject.ProvisioningServiceType;
@@ -10,9 +11,7 @@ import com.wallet.ledger.domain.valueobject.*;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -23,16 +22,15 @@ import java.util.UUID;
 public class ProvisioningTransactionService {
 
     private static final Logger log = LoggerFactory.getLogger(ProvisioningTransactionService.class);
-    @Value("${ledger.system-accounts.fee}")
-    private String feeAccountIdValue;
 
-    private final FindAccountPort findAccountPort;
-    private final FindWalletPort findWalletPort;
+    private final UserAccountCache userAccountCache;
     private final FindProvisioningServicesPort findProvisioningServicesPort;
     private final FindServiceBundlesPort findServiceBundlesPort;
     private final SaveProvisioningServicePort saveProvisioningServicePort;
     private final SaveServiceBundlePort saveServiceBundlePort;
     private final LedgerPostingEngine ledgerPostingEngine;
+    private final SystemAccountRegistry systemAccountRegistry;
+    private final AsyncPostingService asyncPostingService;
 
     public ProvisioningService createService(String type, String name, String code, String subcategory, String description, String status) {
         String effectiveStatus = status != null && !status.isBlank() ? status : "ACTIVE";
@@ -123,10 +121,20 @@ public class ProvisioningTransactionService {
         return updated;
     }
 
-    @Transactional
-    public PostingResult executeProvisioning(String userId, UUID bundleId, String provisioningReference) {
-        var wallet = findWalletPort.findByUserId(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Wallet not found for userId: " + userId));
+    /** referenceId is chosen by the caller so that a re-run of the same request posts (at most) once. */
+    public PostingResult executeProvisioning(String userId, UUID bundleId, String provisioningReference, String referenceId) {
+        PostingResult result = ledgerPostingEngine.post(command(userId, bundleId, provisioningReference, referenceId));
+        log.info("Provisioning completed userId={} bundleId={} txnId={}", userId, bundleId, result.getTransaction().getTransactionId().value());
+        return result;
+    }
+
+    /** Validates the bundle and queues the debit; the returned transaction is PENDING until a worker posts it. */
+    public Transaction executeProvisioningAsync(String userId, UUID bundleId, String provisioningReference, String referenceId) {
+        return asyncPostingService.submit(command(userId, bundleId, provisioningReference, referenceId));
+    }
+
+    private PostingCommand command(String userId, UUID bundleId, String provisioningReference, String referenceId) {
+        UserAccount userAccount = userAccountCache.require(userId);
         ServiceBundle bundle = findServiceBundlesPort.findBundleById(bundleId)
                 .orElseThrow(() -> new IllegalArgumentException("Service bundle not found: " + bundleId));
         if (!bundle.isActive()) {
@@ -136,24 +144,17 @@ public class ProvisioningTransactionService {
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Bundle has no valid amount: " + bundleId);
         }
-        Account userAccount = findAccountPort.findByWalletIdAndType(wallet.getWalletId(), AccountType.USER_WALLET_ACCOUNT)
-                .orElseThrow(() -> new IllegalArgumentException("User wallet account not found for userId: " + userId));
-        Account feeAccount = findAccountPort.findSystemAccountByType(AccountType.FEE_ACCOUNT)
-                .orElseThrow(() -> new IllegalStateException("FEE account not found"));
+        Account feeAccount = systemAccountRegistry.pick(AccountType.FEE_ACCOUNT);
 
-        String referenceId = "provisioning-" + UUID.randomUUID();
-        PostingCommand cmd = PostingCommand.builder()
+        return PostingCommand.builder()
                 .transactionId(TransactionId.generate())
                 .transactionType(TransactionType.PROVISIONING)
                 .referenceId(referenceId)
                 .legs(List.of(
-                        PostingLeg.builder().accountId(userAccount.getAccountId()).direction(EntryDirection.DEBIT).amount(amount).build(),
+                        PostingLeg.builder().accountId(userAccount.accountId()).direction(EntryDirection.DEBIT).amount(amount).build(),
                         PostingLeg.builder().accountId(feeAccount.getAccountId()).direction(EntryDirection.CREDIT).amount(amount).build()))
                 .serviceBundleId(bundleId)
                 .provisioningReference(provisioningReference)
                 .build();
-        PostingResult result = ledgerPostingEngine.post(cmd);
-        log.info("Provisioning completed userId={} bundleId={} txnId={}", userId, bundleId, result.getTransaction().getTransactionId().value());
-        return result;
     }
 }
@@ -0,0 +1,95 @@
+package com.wallet.ledger.application.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Time-windowed Bloom filter of reference ids posted by this node. Two generations of one window each: lookups
+ * check both, additions go to the current one, and the older one is dropped on rotation, so a key is remembered
+ * for at least one and at most two windows. A negative answer means "not posted here recently", never
+ * "not posted at all": the unique index on transaction.reference_id stays the source of truth.
+ */
+class RecentReferenceFilter {
+
+    private final int bitCount;
+    private final int hashCount;
+    private final long windowNanos;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    RecentReferenceFilter(long expectedKeysPerWindow, double falsePositiveRate, long windowNanos) {
+        long bits = (long) Math.ceil(-expectedKeysPerWindow * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.max(64, Math.min(bits, Integer.MAX_VALUE - 63));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedKeysPerWindow * Math.log(2)));
+        this.windowNanos = windowNanos;
+        this.current = new Generation(bitCount, System.nanoTime());
+        this.previous = new Generation(bitCount, current.startedAt);
+    }
+
+    boolean mightContain(String key) {
+        rotateIfDue();
+        long h1 = hash(key, 0x9E3779B97F4A7C15L);
+        long h2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1;
+        return current.contains(h1, h2, hashCount) || previous.contains(h1, h2, hashCount);
+    }
+
+    void add(String key) {
+        rotateIfDue();
+        current.add(hash(key, 0x9E3779B97F4A7C15L), hash(key, 0xC2B2AE3D27D4EB4FL) | 1, hashCount);
+    }
+
+    private void rotateIfDue() {
+        if (System.nanoTime() - current.startedAt < windowNanos) return;
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (now - current.startedAt < windowNanos) return;
+            previous = current;
+            current = new Generation(bitCount, now);
+        }
+    }
+
+    /** 64-bit FNV-1a over the UTF-8 bytes followed by a murmur3 finalizer; seed separates the two hash functions. */
+    private static long hash(String key, long seed) {
+        long h = 0xCBF29CE484222325L ^ seed;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Generation {
+
+        private final AtomicLongArray words;
+        private final int bitCount;
+        private final long startedAt;
+
+        Generation(int bitCount, long startedAt) {
+            this.words = new AtomicLongArray((bitCount + 63) >>> 6);
+            this.bitCount = bitCount;
+            this.startedAt = startedAt;
+        }
+
+        boolean contains(long h1, long h2, int hashCount) {
+            for (int i = 0; i < hashCount; i++) {
+                int bit = (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+
+        void add(long h1, long h2, int hashCount) {
+            for (int i = 0; i < hashCount; i++) {
+                int bit = (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+                long mask = 1L << bit;
+                words.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.wallet.ledger.application.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+
+/**
+ * Phase timings and SQL statement count of the request running on the current thread, for {@link FlightRecorder}.
+ * Recording is a thread-local lookup and an add; on threads without a trace (workers, group-commit flusher) it does
+ * nothing, so time spent waiting on those shows up as unattributed.
+ */
+public final class RequestTrace {
+
+    /** Steps of the posting services (TransferService.transfer, CashOutService.reserveWithdrawal, ...) in order. */
+    public enum Phase {
+        /** userId to wallet and account lookups (FindUserAccountPort, FindWalletPort, FindAccountPort). */
+        WALLET_RESOLUTION,
+        /** In-JVM account stripes and DB account locks. */
+        LOCK_WAIT,
+        /** Balance snapshots of the leg accounts. */
+        BALANCE_LOAD,
+        /** Transaction, ledger entry and account_balance writes. */
+        ENTRY_INSERT,
+        /** From the first before-completion callback to after-completion of the posting transaction. */
+        COMMIT,
+        /** Writing the response body. */
+        SERIALIZATION
+    }
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private int sqlCount;
+    private long serializingSince;
+
+    private RequestTrace() {
+    }
+
+    /** Starts a trace on the current thread, replacing any left over. */
+    public static void begin() {
+        CURRENT.set(new RequestTrace());
+    }
+
+    /** Ends the current thread's trace; null when none was started. */
+    public static RequestTrace end() {
+        RequestTrace trace = CURRENT.get();
+        if (trace == null) return null;
+        CURRENT.remove();
+        if (trace.serializingSince != 0) trace.phaseNanos[Phase.SERIALIZATION.ordinal()] += System.nanoTime() - trace.serializingSince;
+        return trace;
+    }
+
+    public static void add(Phase phase, long nanos) {
+        RequestTrace trace = CURRENT.get();
+        if (trace == null) return;
+        trace.phaseNanos[phase.ordinal()] += nanos;
+        if (phase == Phase.ENTRY_INSERT) trace.timeCommit();
+    }
+
+    public static void statement() {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) trace.sqlCount++;
+    }
+
+    /** The response body is about to be written; the rest of the request counts as SERIALIZATION. */
+    public static void serializing() {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) trace.serializingSince = System.nanoTime();
+    }
+
+    public Instant startedAt() {
+        return startedAt;
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public long phaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    public int sqlCount() {
+        return sqlCount;
+    }
+
+    /** Once per transaction that writes entries for this request. */
+    private void timeCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || TransactionSynchronizationManager.hasResource(this)) return;
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long since;
+
+            @Override
+            public void beforeCompletion() {
+                since = System.nanoTime();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(RequestTrace.this);
+                if (since != 0) phaseNanos[Phase.COMMIT.ordinal()] += System.nanoTime() - since;
+            }
+        });
+    }
+}
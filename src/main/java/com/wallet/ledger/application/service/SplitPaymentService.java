@@ -0,0 +1,90 @@
+package com.wallet.ledger.application.service;
+
+import com.wallet.ledger.application.port.*;
+import com.wallet.ledger.domain.entity.Account;
+import com.wallet.ledger.domain.exception.InvalidPostingException;
+import com.wallet.ledger.domain.valueobject.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Client-composed multi-leg postings (payer to several receivers plus a fee) as one SPLIT_PAYMENT transaction: one
+ * lock acquisition, one balance read and one entry insert instead of a posting per receiver. Legs name a user wallet
+ * or a system account type; {@link #ALLOWED} limits which account types may appear on which side.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SplitPaymentService {
+
+    /** Funds only leave user wallets; system accounts other than FEE_ACCOUNT have dedicated flows. */
+    private static final Map<AccountType, Set<EntryDirection>> ALLOWED = new EnumMap<>(Map.of(
+            AccountType.USER_WALLET_ACCOUNT, EnumSet.of(EntryDirection.DEBIT, EntryDirection.CREDIT),
+            AccountType.FEE_ACCOUNT, EnumSet.of(EntryDirection.CREDIT)));
+
+    private final UserAccountCache userAccountCache;
+    private final SystemAccountRegistry systemAccountRegistry;
+    private final LedgerPostingEngine ledgerPostingEngine;
+
+    public PostingResult post(List<Leg> legs, String referenceId) {
+        log.debug("Split payment legs={} referenceId={}", legs.size(), referenceId);
+        if (legs.size() < 2) {
+            throw new InvalidPostingException("A posting needs at least two legs");
+        }
+        Set<String> userIds = new HashSet<>();
+        for (Leg leg : legs) {
+            if ((leg.userId() == null) == (leg.systemAccount() == null)) {
+                throw new InvalidPostingException("Each leg needs exactly one of userId or systemAccount");
+            }
+            AccountType type = leg.userId() != null ? AccountType.USER_WALLET_ACCOUNT : leg.systemAccount();
+            if (!ALLOWED.getOrDefault(type, Set.of()).contains(leg.direction())) {
+                throw new InvalidPostingException(leg.direction() + " legs are not allowed on " + type);
+            }
+            if (leg.userId() != null) userIds.add(leg.userId());
+        }
+        Set<String> debited = new HashSet<>();
+        legs.stream().filter(l -> l.direction() == EntryDirection.DEBIT).forEach(l -> debited.add(l.userId()));
+        for (Leg leg : legs) {
+            if (leg.direction() == EntryDirection.CREDIT && leg.userId() != null && debited.contains(leg.userId())) {
+                throw new InvalidPostingException("userId " + leg.userId() + " is both debited and credited");
+            }
+        }
+
+        Map<String, UserAccount> accounts = userAccountCache.findAll(userIds);
+        List<PostingLeg> postingLegs = new ArrayList<>(legs.size());
+        for (Leg leg : legs) {
+            AccountId accountId;
+            if (leg.userId() != null) {
+                UserAccount account = accounts.get(leg.userId());
+                if (account == null) throw new IllegalArgumentException("Wallet not found for userId: " + leg.userId());
+                accountId = account.accountId();
+            } else {
+                Account system = systemAccountRegistry.pick(leg.systemAccount());
+                accountId = system.getAccountId();
+            }
+            postingLegs.add(PostingLeg.builder().accountId(accountId).direction(leg.direction()).amount(leg.amount()).build());
+        }
+        PostingResult result = ledgerPostingEngine.post(PostingCommand.builder()
+                .transactionId(TransactionId.generate())
+                .transactionType(TransactionType.SPLIT_PAYMENT)
+                .referenceId(referenceId)
+                .legs(postingLegs)
+                .build());
+        log.info("Split payment completed legs={} txnId={}", legs.size(), result.getTransaction().getTransactionId().value());
+        return result;
+    }
+
+    /** One side of a split payment: exactly one of userId or systemAccount is set. */
+    public record Leg(String userId, AccountType systemAccount, EntryDirection direction, BigDecimal amount) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.wallet.ledger.application.service;
+
+import com.wallet.ledger.application.port.FindAccountPort;
+import com.wallet.ledger.domain.entity.Account;
+import com.wallet.ledger.domain.valueobject.AccountId;
+import com.wallet.ledger.domain.valueobject.AccountType;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * System accounts by type, loaded once at startup so postings do not query the account table for them.
+ * Startup fails if a configured system account (ledger.system-accounts.*) is missing from the DB, is not the
+ * primary shard of its type, or is not a system account. Reloaded after shards are provisioned.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SystemAccountRegistry {
+
+    private final FindAccountPort findAccountPort;
+    private final BalanceCache balanceCache;
+
+    @Value("${ledger.system-accounts.master}")
+    private String masterAccountId;
+
+    @Value("${ledger.system-accounts.settlement}")
+    private String settlementAccountId;
+
+    @Value("${ledger.system-accounts.withdrawal-pending}")
+    private String withdrawalPendingAccountId;
+
+    @Value("${ledger.system-accounts.fee}")
+    private String feeAccountId;
+
+    @Value("${ledger.system-accounts.reversal}")
+    private String reversalAccountId;
+
+    private volatile Map<AccountType, List<Account>> shardsByType = Collections.emptyMap();
+    private volatile Map<AccountId, AccountId> primaryByShard = Collections.emptyMap();
+
+    @PostConstruct
+    public void load() {
+        Map<AccountType, AccountId> configured = new EnumMap<>(AccountType.class);
+        configured.put(AccountType.SYSTEM_MASTER_ACCOUNT, AccountId.fromString(masterAccountId));
+        configured.put(AccountType.SETTLEMENT_ACCOUNT, AccountId.fromString(settlementAccountId));
+        configured.put(AccountType.WITHDRAWAL_PENDING_ACCOUNT, AccountId.fromString(withdrawalPendingAccountId));
+        configured.put(AccountType.FEE_ACCOUNT, AccountId.fromString(feeAccountId));
+        configured.put(AccountType.REVERSAL_ACCOUNT, AccountId.fromString(reversalAccountId));
+
+        Map<AccountType, List<Account>> loaded = new EnumMap<>(AccountType.class);
+        configured.forEach((type, expectedId) -> {
+            List<Account> shards = findAccountPort.findSystemAccountShards(type);
+            if (shards.isEmpty()) {
+                throw new IllegalStateException("System account not found: " + type);
+            }
+            Account primary = shards.get(0);
+            if (!primary.getAccountId().equals(expectedId) || primary.getShardIndex() != 0 || !primary.isSystemAccount()) {
+                throw new IllegalStateException("System account " + type + " is " + primary.getAccountId().value()
+                        + " in the database but configured as " + expectedId.value());
+            }
+            loaded.put(type, List.copyOf(shards));
+        });
+        Map<AccountId, AccountId> primaries = new HashMap<>();
+        loaded.values().forEach(shards -> shards.forEach(shard -> primaries.put(shard.getAccountId(), shards.get(0).getAccountId())));
+        shardsByType = Collections.unmodifiableMap(loaded);
+        primaryByShard = Map.copyOf(primaries);
+        log.info("Loaded system accounts {}", loaded.entrySet().stream()
+                .map(e -> e.getKey() + "=" + e.getValue().size()).toList());
+    }
+
+    /** One shard of a system account type for a posting, spreading load across its sub-accounts. */
+    public Account pick(AccountType accountType) {
+        List<Account> shards = shards(accountType);
+        return shards.size() == 1 ? shards.get(0) : shards.get(ThreadLocalRandom.current().nextInt(shards.size()));
+    }
+
+    /**
+     * A shard to debit amount from: starting at a random shard, the first whose (cached) balance covers the amount,
+     * else the shard with the largest balance. Shards are not exempt from the overdraft check, so a random pick fails
+     * as soon as that one shard runs dry even while the type's total still covers the debit.
+     */
+    public Account pickFunded(AccountType accountType, BigDecimal amount) {
+        List<Account> shards = shards(accountType);
+        if (shards.size() == 1) return shards.get(0);
+        int start = ThreadLocalRandom.current().nextInt(shards.size());
+        Account richest = null;
+        BigDecimal richestBalance = null;
+        for (int i = 0; i < shards.size(); i++) {
+            Account shard = shards.get((start + i) % shards.size());
+            BigDecimal balance = balanceCache.getBalance(shard.getAccountId(), false);
+            if (balance.compareTo(amount) >= 0) return shard;
+            if (richestBalance == null || balance.compareTo(richestBalance) > 0) {
+                richest = shard;
+                richestBalance = balance;
+            }
+        }
+        return richest;
+    }
+
+    /** The primary (shard 0) account of a system account shard; any other account unchanged. */
+    public AccountId primaryOf(AccountId accountId) {
+        return primaryByShard.getOrDefault(accountId, accountId);
+    }
+
+    /** All shards of a system account type, ordered by shard index (shard 0 is the primary account). */
+    public List<Account> shards(AccountType accountType) {
+        List<Account> shards = shardsByType.get(accountType);
+        if (shards == null) {
+            throw new IllegalArgumentException("Not a system account type: " + accountType);
+        }
+        return shards;
+    }
+}
@@ -9,9 +9,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -19,7 +25,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SystemAccountService {
 
-    private static final Set<AccountType> SYSTEM_ACCOUNT_TYPES = Set.of(
+    private static final Set<AccountType> SYSTEM_ACCOUNT_TYPES = EnumSet.of(
             AccountType.SYSTEM_MASTER_ACCOUNT,
             AccountType.SETTLEMENT_ACCOUNT,
             AccountType.WITHDRAWAL_PENDING_ACCOUNT,
@@ -27,54 +33,130 @@ public class SystemAccountService {
             AccountType.REVERSAL_ACCOUNT
     );
 
+    /** System account types that may be split into shards. SYSTEM_MASTER_ACCOUNT stays a single account. */
+    public static final Set<AccountType> SHARDABLE_ACCOUNT_TYPES = EnumSet.of(
+            AccountType.SETTLEMENT_ACCOUNT,
+            AccountType.WITHDRAWAL_PENDING_ACCOUNT,
+            AccountType.FEE_ACCOUNT,
+            AccountType.REVERSAL_ACCOUNT
+    );
+
     private final FindAccountPort findAccountPort;
+    private final SaveAccountPort saveAccountPort;
     private final LoadAccountBalancesPort loadAccountBalancesPort;
     private final LedgerPostingEngine ledgerPostingEngine;
+    private final SystemAccountRegistry systemAccountRegistry;
 
     /**
-     * Get balance for one system account by type.
+     * Get balance for one system account by type (sum over all shards).
      */
     public BigDecimal getBalance(AccountType accountType) {
         return getBalanceDetail(accountType).balance();
     }
 
     /**
-     * Get balance and account info for one system account by type.
+     * Get balance and account info for one system account by type. Balance is aggregated across all shards;
+     * accountId is the primary (shard 0) account.
      */
     public SystemAccountBalance getBalanceDetail(AccountType accountType) {
         if (!SYSTEM_ACCOUNT_TYPES.contains(accountType)) {
             throw new IllegalArgumentException("Not a system account type: " + accountType);
         }
-        Account account = findAccountPort.findSystemAccountByType(accountType)
-                .orElseThrow(() -> new IllegalArgumentException("System account not found: " + accountType));
-        var balances = loadAccountBalancesPort.loadBalances(Set.of(account.getAccountId()));
-        BigDecimal balance = balances.getOrDefault(account.getAccountId(), BigDecimal.ZERO);
-        return new SystemAccountBalance(account.getAccountType().name(), account.getAccountId().value().toString(), balance);
+        List<Account> shards = systemAccountRegistry.shards(accountType);
+        var balances = loadAccountBalancesPort.loadBalances(shards.stream().map(Account::getAccountId).collect(Collectors.toSet()));
+        return aggregate(accountType, shards, balances);
     }
 
     /**
-     * Get balances for all system accounts.
+     * Get balances for all system accounts, one entry per type aggregated across its shards.
      */
     public List<SystemAccountBalance> getAllBalances() {
         List<SystemAccountBalance> result = new ArrayList<>();
-        List<Account> accounts = new ArrayList<>();
+        Map<AccountType, List<Account>> shardsByType = new EnumMap<>(AccountType.class);
         for (AccountType type : SYSTEM_ACCOUNT_TYPES) {
-            findAccountPort.findSystemAccountByType(type).ifPresent(accounts::add);
+            shardsByType.put(type, systemAccountRegistry.shards(type));
         }
-        if (accounts.isEmpty()) return result;
-        Set<AccountId> ids = accounts.stream().map(Account::getAccountId).collect(Collectors.toSet());
+        Set<AccountId> ids = shardsByType.values().stream()
+                .flatMap(List::stream)
+                .map(Account::getAccountId)
+                .collect(Collectors.toSet());
         var balances = loadAccountBalancesPort.loadBalances(ids);
-        for (Account acc : accounts) {
-            result.add(new SystemAccountBalance(acc.getAccountType().name(), acc.getAccountId().value().toString(),
-                    balances.getOrDefault(acc.getAccountId(), BigDecimal.ZERO)));
-        }
+        shardsByType.forEach((type, shards) -> result.add(aggregate(type, shards, balances)));
         return result;
     }
 
     /**
-     * Add amount to a system account (DEBIT SYSTEM_MASTER_ACCOUNT, CREDIT target). Cannot credit SYSTEM_MASTER_ACCOUNT.
+     * Ensure a shardable system account type has at least shardCount shards. New shards get deterministic ids
+     * (so every node derives the same ones) and are funded from shard 0 with an equal split of its balance.
+     * Returns all shards of the type after provisioning.
      */
     @Transactional
+    public List<Account> provisionShards(AccountType accountType, int shardCount) {
+        if (!SHARDABLE_ACCOUNT_TYPES.contains(accountType)) {
+            throw new IllegalArgumentException("System account type cannot be sharded: " + accountType);
+        }
+        List<Account> shards = findAccountPort.findSystemAccountShards(accountType);
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("System account not found: " + accountType);
+        }
+        if (shards.size() >= shardCount) return shards;
+        List<Account> created = new ArrayList<>();
+        for (int i = shards.size(); i < shardCount; i++) {
+            Account shard = Account.builder()
+                    .accountId(shardAccountId(accountType, i))
+                    .accountType(accountType)
+                    .status(AccountStatus.ACTIVE)
+                    .shardIndex(i)
+                    .build();
+            saveAccountPort.save(shard);
+            created.add(shard);
+        }
+        fundShards(shards.get(0), created, shardCount);
+        log.info("Provisioned system account shards accountType={} shards={}", accountType, shardCount);
+        List<Account> all = new ArrayList<>(shards);
+        all.addAll(created);
+        return all;
+    }
+
+    /** Split the primary account balance equally between itself and the new shards (DEBIT primary, CREDIT each shard). */
+    private void fundShards(Account primary, List<Account> newShards, int shardCount) {
+        BigDecimal primaryBalance = loadAccountBalancesPort.loadBalances(Set.of(primary.getAccountId()))
+                .getOrDefault(primary.getAccountId(), BigDecimal.ZERO);
+        BigDecimal share = primaryBalance.divide(BigDecimal.valueOf(newShards.size() + 1L), 4, RoundingMode.DOWN);
+        if (share.compareTo(BigDecimal.ZERO) <= 0) {
+            log.warn("Primary system account has no balance to split; new shards start at zero accountType={}", primary.getAccountType());
+            return;
+        }
+        List<PostingLeg> legs = new ArrayList<>();
+        legs.add(PostingLeg.builder().accountId(primary.getAccountId()).direction(EntryDirection.DEBIT)
+                .amount(share.multiply(BigDecimal.valueOf(newShards.size()))).build());
+        for (Account shard : newShards) {
+            legs.add(PostingLeg.builder().accountId(shard.getAccountId()).direction(EntryDirection.CREDIT).amount(share).build());
+        }
+        PostingCommand cmd = PostingCommand.builder()
+                .transactionId(TransactionId.generate())
+                .transactionType(TransactionType.SYSTEM_CREDIT)
+                .referenceId("system-account-shards-" + primary.getAccountType().name() + "-" + shardCount)
+                .legs(legs)
+                .build();
+        ledgerPostingEngine.post(cmd);
+    }
+
+    private static AccountId shardAccountId(AccountType accountType, int shardIndex) {
+        return AccountId.of(UUID.nameUUIDFromBytes(
+                ("system-account-shard:" + accountType.name() + ":" + shardIndex).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static SystemAccountBalance aggregate(AccountType accountType, List<Account> shards, Map<AccountId, BigDecimal> balances) {
+        BigDecimal total = shards.stream()
+                .map(a -> balances.getOrDefault(a.getAccountId(), BigDecimal.ZERO))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return new SystemAccountBalance(accountType.name(), shards.get(0).getAccountId().value().toString(), total, shards.size());
+    }
+
+    /**
+     * Add amount to a system account (DEBIT SYSTEM_MASTER_ACCOUNT, CREDIT target). Cannot credit SYSTEM_MASTER_ACCOUNT.
+     */
     public PostingResult creditSystemAccount(AccountType accountType, BigDecimal amount) {
         if (accountType == AccountType.SYSTEM_MASTER_ACCOUNT) {
             throw new IllegalArgumentException("Cannot credit SYSTEM_MASTER_ACCOUNT via this API");
@@ -82,10 +164,8 @@ public class SystemAccountService {
         if (!SYSTEM_ACCOUNT_TYPES.contains(accountType)) {
             throw new IllegalArgumentException("Not a system account type: " + accountType);
         }
-        Account master = findAccountPort.findSystemAccountByType(AccountType.SYSTEM_MASTER_ACCOUNT)
-                .orElseThrow(() -> new IllegalStateException("SYSTEM_MASTER_ACCOUNT not found"));
-        Account target = findAccountPort.findSystemAccountByType(accountType)
-                .orElseThrow(() -> new IllegalArgumentException("System account not found: " + accountType));
+        Account master = systemAccountRegistry.pick(AccountType.SYSTEM_MASTER_ACCOUNT);
+        Account target = systemAccountRegistry.pick(accountType);
         String ref = "system-credit-" + java.util.UUID.randomUUID();
         PostingCommand cmd = PostingCommand.builder()
                 .transactionId(TransactionId.generate())
@@ -100,5 +180,5 @@ public class SystemAccountService {
         return result;
     }
 
-    public record SystemAccountBalance(String accountType, String accountId, BigDecimal balance) {}
+    public record SystemAccountBalance(String accountType, String accountId, BigDecimal balance, int shards) {}
 }
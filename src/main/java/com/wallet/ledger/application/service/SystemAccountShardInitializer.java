@@ -0,0 +1,40 @@
+package com.wallet.ledger.application.service;
+
+import com.wallet.ledger.domain.valueobject.AccountType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the configured number of shards (ledger.system-accounts.shard-count) for each shardable system account
+ * type at startup, then reloads {@link SystemAccountRegistry}. Shard count can only grow; existing shards are never removed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SystemAccountShardInitializer implements ApplicationRunner {
+
+    private final SystemAccountService systemAccountService;
+    private final SystemAccountRegistry systemAccountRegistry;
+
+    @Value("${ledger.system-accounts.shard-count:1}")
+    private int shardCount;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (shardCount <= 1) return;
+        for (AccountType type : SystemAccountService.SHARDABLE_ACCOUNT_TYPES) {
+            try {
+                systemAccountService.provisionShards(type, shardCount);
+            } catch (DataIntegrityViolationException e) {
+                // Another node provisioned the same (deterministic) shards concurrently.
+                log.warn("System account shards already being provisioned accountType={}: {}", type, e.getMostSpecificCause().getMessage());
+            }
+        }
+        systemAccountRegistry.load();
+    }
+}
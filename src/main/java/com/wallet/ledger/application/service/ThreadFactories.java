@@ -0,0 +1,23 @@
+package com.wallet.ledger.application.service;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Named worker threads: prefix-1, prefix-2, ... so pools are recognisable in thread dumps, virtual or not. */
+final class ThreadFactories {
+
+    private ThreadFactories() {
+    }
+
+    static ThreadFactory named(String prefix, boolean virtual) {
+        if (virtual) {
+            return Thread.ofVirtual().name(prefix + "-", 1).factory();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
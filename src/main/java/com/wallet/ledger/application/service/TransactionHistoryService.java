@@ -1,13 +1,10 @@
 package com.wallet.ledger.application.service;
 
-import com.wallet.ledger.application.port.FindAccountPort;
 import com.wallet.ledger.application.port.FindLedgerEntriesByTransactionIdPort;
 import com.wallet.ledger.application.port.FindTransactionsPort;
-import com.wallet.ledger.application.port.FindWalletPort;
 import com.wallet.ledger.domain.entity.LedgerEntry;
 import com.wallet.ledger.domain.entity.Transaction;
 import com.wallet.ledger.domain.valueobject.AccountId;
-import com.wallet.ledger.domain.valueobject.AccountType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -20,19 +17,14 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TransactionHistoryService {
 
-    private final FindWalletPort findWalletPort;
-    private final FindAccountPort findAccountPort;
+    private final UserAccountCache userAccountCache;
     private final FindTransactionsPort findTransactionsPort;
     private final FindLedgerEntriesByTransactionIdPort findLedgerEntriesByTransactionIdPort;
 
     /** Transaction history with both credit and debit legs: each transaction returns one record per ledger entry (DEBIT and CREDIT). */
     public List<TransactionWithEntryDetail> getTransactionHistoryWithDetails(String userId) {
         log.debug("Transaction history with details userId={}", userId);
-        var wallet = findWalletPort.findByUserId(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Wallet not found for userId: " + userId));
-        var account = findAccountPort.findByWalletIdAndType(wallet.getWalletId(), AccountType.USER_WALLET_ACCOUNT)
-                .orElseThrow(() -> new IllegalArgumentException("Wallet account not found for userId: " + userId));
-        AccountId accountId = account.getAccountId();
+        AccountId accountId = userAccountCache.require(userId).accountId();
         List<Transaction> transactions = findTransactionsPort.findByAccountId(accountId);
         List<TransactionWithEntryDetail> result = new ArrayList<>();
         for (Transaction txn : transactions) {
@@ -47,11 +39,7 @@ public class TransactionHistoryService {
 
     public List<Transaction> getTransactions(String userId) {
         log.debug("Transaction history userId={}", userId);
-        var wallet = findWalletPort.findByUserId(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Wallet not found for userId: " + userId));
-        var account = findAccountPort.findByWalletIdAndType(wallet.getWalletId(), AccountType.USER_WALLET_ACCOUNT)
-                .orElseThrow(() -> new IllegalArgumentException("Wallet account not found for userId: " + userId));
-        List<Transaction> list = findTransactionsPort.findByAccountId(account.getAccountId());
+        List<Transaction> list = findTransactionsPort.findByAccountId(userAccountCache.require(userId).accountId());
         log.trace("Transaction history completed userId={}", userId);
         return list;
     }
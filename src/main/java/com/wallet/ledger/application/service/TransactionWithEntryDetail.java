@@ -19,9 +19,9 @@ public record TransactionWithEntryDetail(
         return new TransactionWithEntryDetail(
             transaction,
             entry.getAccountId(),
-            entry.getAmount(),
+            entry.getAmount().toBigDecimal(),
             entry.getDirection(),
-            entry.getBalanceAfter()
+            entry.getBalanceAfter().toBigDecimal()
         );
     }
 }
@@ -1,49 +1,104 @@
 package com.wallet.ledger.application.service;
 
 import com.wallet.ledger.application.port.*;
-import com.wallet.ledger.domain.entity.Account;
+import com.wallet.ledger.domain.entity.Transaction;
 import com.wallet.ledger.domain.valueobject.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TransferService {
 
-    private final FindWalletPort findWalletPort;
-    private final FindAccountPort findAccountPort;
-    private final LockAccountPort lockAccountPort;
+    private final UserAccountCache userAccountCache;
     private final LedgerPostingEngine ledgerPostingEngine;
+    private final AsyncPostingService asyncPostingService;
 
-    @Transactional
     public PostingResult transfer(String fromUserId, String toUserId, BigDecimal amount, String referenceId) {
         log.debug("Transfer fromUserId={} toUserId={} amount={} referenceId={}", fromUserId, toUserId, amount, referenceId);
-        var fromWallet = findWalletPort.findByUserId(fromUserId)
+        PostingResult result = ledgerPostingEngine.post(command(fromUserId, toUserId, amount, referenceId));
+        log.info("Transfer completed fromUserId={} toUserId={} txnId={}", fromUserId, toUserId, result.getTransaction().getTransactionId().value());
+        return result;
+    }
+
+    /** Validates and queues the transfer; the balance check happens when a worker posts it. */
+    public Transaction transferAsync(String fromUserId, String toUserId, BigDecimal amount, String referenceId) {
+        log.debug("Async transfer fromUserId={} toUserId={} amount={} referenceId={}", fromUserId, toUserId, amount, referenceId);
+        return asyncPostingService.submit(command(fromUserId, toUserId, amount, referenceId));
+    }
+
+    private PostingCommand command(String fromUserId, String toUserId, BigDecimal amount, String referenceId) {
+        UserAccount fromAccount = userAccountCache.find(fromUserId)
                 .orElseThrow(() -> new IllegalArgumentException("Sender wallet not found for userId: " + fromUserId));
-        var toWallet = findWalletPort.findByUserId(toUserId)
+        UserAccount toAccount = userAccountCache.find(toUserId)
                 .orElseThrow(() -> new IllegalArgumentException("Receiver wallet not found for userId: " + toUserId));
-        Account fromAccount = findAccountPort.findByWalletIdAndType(fromWallet.getWalletId(), AccountType.USER_WALLET_ACCOUNT)
-                .orElseThrow(() -> new IllegalArgumentException("Sender wallet account not found for userId: " + fromUserId));
-        Account toAccount = findAccountPort.findByWalletIdAndType(toWallet.getWalletId(), AccountType.USER_WALLET_ACCOUNT)
-                .orElseThrow(() -> new IllegalArgumentException("Receiver wallet account not found for userId: " + toUserId));
-        lockAccountPort.lockForUpdate(fromAccount.getAccountId())
-                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + fromAccount.getAccountId().value()));
-        PostingCommand cmd = PostingCommand.builder()
+        return PostingCommand.builder()
                 .transactionId(TransactionId.generate())
                 .transactionType(TransactionType.TRANSFER)
                 .referenceId(referenceId)
                 .legs(List.of(
-                        PostingLeg.builder().accountId(fromAccount.getAccountId()).direction(EntryDirection.DEBIT).amount(amount).build(),
-                        PostingLeg.builder().accountId(toAccount.getAccountId()).direction(EntryDirection.CREDIT).amount(amount).build()))
+                        PostingLeg.builder().accountId(fromAccount.accountId()).direction(EntryDirection.DEBIT).amount(amount).build(),
+                        PostingLeg.builder().accountId(toAccount.accountId()).direction(EntryDirection.CREDIT).amount(amount).build()))
                 .build();
-        PostingResult result = ledgerPostingEngine.post(cmd);
-        log.info("Transfer completed fromUserId={} toUserId={} txnId={}", fromUserId, toUserId, result.getTransaction().getTransactionId().value());
+    }
+
+    /**
+     * Many transfers in one posting unit (see {@link LedgerPostingEngine#postBatch}). All parties are resolved with
+     * one lookup; an item with an unknown party is rejected (and aborts the batch when atomic).
+     */
+    public BatchPostingResult transferBatch(List<TransferItem> transfers, boolean atomic) {
+        log.debug("Batch transfer items={} atomic={}", transfers.size(), atomic);
+        Set<String> userIds = new HashSet<>();
+        transfers.forEach(t -> {
+            userIds.add(t.fromUserId());
+            userIds.add(t.toUserId());
+        });
+        Map<String, UserAccount> accounts = userAccountCache.findAll(userIds);
+        List<PostingCommand> commands = new ArrayList<>(transfers.size());
+        List<Integer> positions = new ArrayList<>(transfers.size());
+        BatchPostingResult.Item[] items = new BatchPostingResult.Item[transfers.size()];
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferItem t = transfers.get(i);
+            UserAccount from = accounts.get(t.fromUserId());
+            UserAccount to = accounts.get(t.toUserId());
+            if (from == null || to == null) {
+                items[i] = BatchPostingResult.Item.rejected((from == null ? "Sender" : "Receiver") + " wallet not found for userId: "
+                        + (from == null ? t.fromUserId() : t.toUserId()));
+                continue;
+            }
+            positions.add(i);
+            commands.add(PostingCommand.builder()
+                    .transactionId(TransactionId.generate())
+                    .transactionType(TransactionType.TRANSFER)
+                    .referenceId(t.referenceId())
+                    .legs(List.of(
+                            PostingLeg.builder().accountId(from.accountId()).direction(EntryDirection.DEBIT).amount(t.amount()).build(),
+                            PostingLeg.builder().accountId(to.accountId()).direction(EntryDirection.CREDIT).amount(t.amount()).build()))
+                    .build());
+        }
+        boolean unresolved = positions.size() < transfers.size();
+        BatchPostingResult posted = atomic && unresolved
+                ? new BatchPostingResult(false, commands.stream().map(c -> BatchPostingResult.Item.aborted()).toList())
+                : ledgerPostingEngine.postBatch(commands, atomic);
+        for (int j = 0; j < positions.size(); j++) {
+            items[positions.get(j)] = posted.items().get(j);
+        }
+        BatchPostingResult result = new BatchPostingResult(posted.committed(), List.of(items));
+        log.info("Batch transfer items={} posted={} replayed={} rejected={} committed={}", transfers.size(),
+                result.count(BatchPostingResult.Status.POSTED), result.count(BatchPostingResult.Status.REPLAYED),
+                result.count(BatchPostingResult.Status.REJECTED), result.committed());
         return result;
     }
+
+    public record TransferItem(String fromUserId, String toUserId, BigDecimal amount, String referenceId) {
+    }
 }
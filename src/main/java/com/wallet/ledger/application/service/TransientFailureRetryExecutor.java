@@ -0,0 +1,109 @@
+package com.wallet.ledger.application.service;
+
+import com.wallet.ledger.application.port.PostingCommand;
+import com.wallet.ledger.application.port.PostingResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a whole posting unit (its own transaction) on transient concurrency failures: serialization failure
+ * (40001), deadlock (40P01), lock timeout (55P03), balance version conflict and in-JVM lock timeout. Backoff is
+ * exponential with jitter, bounded by max-attempts and an overall deadline. A unique violation is resolved
+ * against reference_id: if the reference is already committed, its transaction is returned instead of posting
+ * twice (idempotent replay); any other unique violation (e.g. a racing account_seq) is retried.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransientFailureRetryExecutor {
+
+    private final IdempotencyGuard idempotencyGuard;
+    private final MeterRegistry meterRegistry;
+
+    /** Registered once per type (and cause) instead of a registry lookup on every attempt. */
+    private final Map<String, Counter> attempts = new ConcurrentHashMap<>();
+    private final Map<String, Counter> giveups = new ConcurrentHashMap<>();
+    private final Map<RetryKey, Counter> retries = new ConcurrentHashMap<>();
+
+    @Value("${ledger.retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${ledger.retry.initial-backoff-ms:5}")
+    private long initialBackoffMs;
+
+    @Value("${ledger.retry.max-backoff-ms:200}")
+    private long maxBackoffMs;
+
+    @Value("${ledger.retry.deadline-ms:3000}")
+    private long deadlineMs;
+
+    /** Must be called outside any transaction; unit opens (and on failure rolls back) its own. */
+    public PostingResult execute(PostingCommand command, Supplier<PostingResult> unit) {
+        return run(command.getTransactionType().name(), "txnId=" + command.getTransactionId().value() + " ref=" + command.getReferenceId(),
+                unit, () -> idempotencyGuard.replayOnConflict(command));
+    }
+
+    /**
+     * Same retry policy for a unit that writes many postings. A unique violation is always retried: the unit is
+     * expected to re-check its reference ids on every run, so a reference committed concurrently is replayed then.
+     */
+    public <T> T executeBatch(String type, String description, Supplier<T> unit) {
+        return run(type, description, unit, Optional::empty);
+    }
+
+    private <T> T run(String type, String description, Supplier<T> unit, Supplier<Optional<T>> onDuplicate) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        long backoffMs = initialBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            attempts.computeIfAbsent(type, t -> meterRegistry.counter("ledger.posting.attempts", "type", t)).increment();
+            DataAccessException failure;
+            try {
+                return unit.get();
+            } catch (DuplicateKeyException e) {
+                Optional<T> replay = onDuplicate.get();
+                if (replay.isPresent()) return replay.get();
+                failure = e;
+            } catch (ConcurrencyFailureException e) {
+                failure = e;
+            }
+            long sleepMs = ThreadLocalRandom.current().nextLong(backoffMs / 2, backoffMs + 1);
+            if (attempt >= maxAttempts || System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sleepMs) > deadline) {
+                giveups.computeIfAbsent(type, t -> meterRegistry.counter("ledger.posting.giveups", "type", t)).increment();
+                log.warn("Giving up posting {} after {} attempts: {}", description, attempt, failure.getMessage());
+                throw failure;
+            }
+            retries.computeIfAbsent(new RetryKey(type, failure.getClass()), key -> meterRegistry.counter("ledger.posting.retries",
+                    "type", key.type(), "cause", key.cause().getSimpleName())).increment();
+            log.debug("Transient failure {} attempt={} cause={}, retrying in {}ms",
+                    description, attempt, failure.getClass().getSimpleName(), sleepMs);
+            sleep(sleepMs);
+            backoffMs = Math.min(maxBackoffMs, backoffMs * 2);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off posting retry", e);
+        }
+    }
+
+    private record RetryKey(String type, Class<?> cause) {
+    }
+}
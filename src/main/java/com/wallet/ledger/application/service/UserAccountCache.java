@@ -0,0 +1,100 @@
+package com.wallet.ledger.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wallet.ledger.application.port.FindUserAccountPort;
+import com.wallet.ledger.application.port.UserAccount;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded cache of userId to wallet/account. The mapping never changes once a wallet exists, so entries are only
+ * evicted by size or explicitly (e.g. when a wallet's status changes). Unknown users are not cached, so a wallet
+ * created afterwards is found on the next lookup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserAccountCache {
+
+    private final FindUserAccountPort findUserAccountPort;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ledger.user-account-cache.max-size:100000}")
+    private long maxSize;
+
+    private Cache<String, UserAccount> cache;
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder().maximumSize(maxSize).build();
+        hits = requests("hit");
+        misses = requests("miss");
+        Gauge.builder("ledger.user-account.cache.size", cache, Cache::estimatedSize).register(meterRegistry);
+        log.info("User account cache maxSize={}", maxSize);
+    }
+
+    private Counter requests(String result) {
+        return Counter.builder("ledger.user-account.cache.requests")
+                .description("userId to wallet/account lookups by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public Optional<UserAccount> find(String userId) {
+        UserAccount cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        Optional<UserAccount> loaded = findUserAccountPort.findUserAccount(userId);
+        loaded.ifPresent(account -> cache.put(userId, account));
+        return loaded;
+    }
+
+    /** Many users at once: cached entries plus one query for all misses. Users without a wallet are absent. */
+    public Map<String, UserAccount> findAll(Collection<String> userIds) {
+        Map<String, UserAccount> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String userId : new LinkedHashSet<>(userIds)) {
+            UserAccount cached = cache.getIfPresent(userId);
+            if (cached != null) result.put(userId, cached);
+            else missing.add(userId);
+        }
+        hits.increment(result.size());
+        misses.increment(missing.size());
+        if (!missing.isEmpty()) {
+            Map<String, UserAccount> loaded = findUserAccountPort.findUserAccounts(missing);
+            cache.putAll(loaded);
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    /** Throws IllegalArgumentException if the user has no wallet. */
+    public UserAccount require(String userId) {
+        return find(userId).orElseThrow(() -> new IllegalArgumentException("Wallet not found for userId: " + userId));
+    }
+
+    /** Drop a user's entry, e.g. after its wallet or account status changed. */
+    public void evict(String userId) {
+        cache.invalidate(userId);
+    }
+}
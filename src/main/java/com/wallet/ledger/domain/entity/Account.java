@@ -11,6 +11,7 @@ import java.util.Optional;
 
 /**
  * Account entity. System accounts have walletId null. Balance derived from ledger entries.
+ * System accounts may be split into shards (sub-accounts of the same type); shardIndex 0 is the primary account.
  */
 @Value
 @Builder
@@ -20,11 +21,13 @@ public class Account {
     AccountType accountType;
     AccountStatus status;
     WalletId walletId;
+    int shardIndex;
 
     public AccountId getAccountId() { return accountId; }
     public AccountType getAccountType() { return accountType; }
     public AccountStatus getStatus() { return status; }
     public WalletId getWalletId() { return walletId; }
+    public int getShardIndex() { return shardIndex; }
 
     public boolean isSystemAccount() {
         return walletId == null;
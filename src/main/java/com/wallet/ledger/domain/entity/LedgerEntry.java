@@ -3,15 +3,16 @@ package com.wallet.ledger.domain.entity;
 import com.wallet.ledger.domain.valueobject.AccountId;
 import com.wallet.ledger.domain.valueobject.EntryDirection;
 import com.wallet.ledger.domain.valueobject.EntryId;
+import com.wallet.ledger.domain.valueobject.LedgerAmount;
 import com.wallet.ledger.domain.valueobject.TransactionId;
 import lombok.Builder;
 import lombok.Value;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 
 /**
  * Immutable ledger entry. Double-entry: DEBIT and CREDIT. balance_after = snapshot for balance derivation.
+ * accountSeq = position of this entry in its account's chain (1-based, gapless).
  */
 @Value
 @Builder
@@ -21,16 +22,18 @@ public class LedgerEntry {
     TransactionId transactionId;
     AccountId accountId;
     EntryDirection direction;
-    BigDecimal amount;
-    BigDecimal balanceAfter;
+    LedgerAmount amount;
+    LedgerAmount balanceAfter;
+    long accountSeq;
     Instant createdAt;
 
     public EntryId getEntryId() { return entryId; }
     public TransactionId getTransactionId() { return transactionId; }
     public AccountId getAccountId() { return accountId; }
     public EntryDirection getDirection() { return direction; }
-    public BigDecimal getAmount() { return amount; }
-    public BigDecimal getBalanceAfter() { return balanceAfter; }
+    public LedgerAmount getAmount() { return amount; }
+    public LedgerAmount getBalanceAfter() { return balanceAfter; }
+    public long getAccountSeq() { return accountSeq; }
     public Instant getCreatedAt() { return createdAt; }
 
     public boolean isDebit() {
@@ -0,0 +1,49 @@
+package com.wallet.ledger.domain.valueobject;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Ledger amount or balance as a signed count of minor units at scale 4 (1.0000 = 10000), matching NUMERIC(19, 4).
+ * Arithmetic is overflow-checked (ArithmeticException). Converted to BigDecimal only at the JDBC and JSON edges.
+ */
+public record LedgerAmount(long minorUnits) implements Comparable<LedgerAmount> {
+
+    public static final int SCALE = 4;
+    public static final LedgerAmount ZERO = new LedgerAmount(0);
+
+    /** Rounds HALF_UP to scale 4; throws ArithmeticException if the value does not fit in a long at that scale. */
+    public static LedgerAmount of(BigDecimal amount) {
+        return new LedgerAmount(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    public static LedgerAmount ofMinorUnits(long minorUnits) {
+        return new LedgerAmount(minorUnits);
+    }
+
+    public LedgerAmount plus(LedgerAmount other) {
+        return new LedgerAmount(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public LedgerAmount minus(LedgerAmount other) {
+        return new LedgerAmount(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(LedgerAmount other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
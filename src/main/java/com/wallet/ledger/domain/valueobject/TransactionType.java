@@ -9,5 +9,6 @@ public enum TransactionType {
     WITHDRAWAL_SETTLE,
     OPENING_BALANCE,
     SYSTEM_CREDIT,
-    PROVISIONING
+    PROVISIONING,
+    SPLIT_PAYMENT
 }
@@ -0,0 +1,6 @@
+-- Multi-leg postings from POST /postings (payer debited, several receivers and fee credited in one transaction).
+ALTER TABLE transaction DROP CONSTRAINT IF EXISTS chk_txn_type;
+ALTER TABLE transaction ADD CONSTRAINT chk_txn_type CHECK (txn_type IN (
+    'CASH_IN', 'CASH_OUT', 'TRANSFER', 'REVERSAL', 'WITHDRAWAL_RESERVE', 'WITHDRAWAL_SETTLE', 'OPENING_BALANCE', 'SYSTEM_CREDIT', 'PROVISIONING',
+    'SPLIT_PAYMENT'
+));
@@ -0,0 +1,17 @@
+-- Async postings: the request is accepted as a PENDING transaction row plus its queued legs. A worker posts it
+-- through the ledger engine, which promotes the same transaction row to COMPLETED and removes the queue row.
+CREATE TABLE IF NOT EXISTS pending_posting (
+    txn_id          UUID             NOT NULL PRIMARY KEY,
+    leg_accounts    UUID[]           NOT NULL,
+    leg_directions  VARCHAR(8)[]     NOT NULL,
+    leg_amounts     NUMERIC(19, 4)[] NOT NULL,
+    state           VARCHAR(16)      NOT NULL DEFAULT 'QUEUED',
+    attempts        INT              NOT NULL DEFAULT 0,
+    available_at    TIMESTAMPTZ      NOT NULL DEFAULT clock_timestamp(),
+    error           VARCHAR(1024)    NULL,
+    created_at      TIMESTAMPTZ      NOT NULL DEFAULT clock_timestamp(),
+    CONSTRAINT chk_pending_posting_state CHECK (state IN ('QUEUED', 'FAILED')),
+    CONSTRAINT fk_pending_posting_txn FOREIGN KEY (txn_id) REFERENCES transaction (txn_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_pending_posting_available ON pending_posting (available_at) WHERE state = 'QUEUED';
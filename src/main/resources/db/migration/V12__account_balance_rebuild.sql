@@ -0,0 +1,29 @@
+-- Rebuild account_balance from the ledger. The V7 backfill took balance_after of the latest entry by created_at
+-- alone (no tiebreak), and V8 then pointed last_account_seq at the highest sequence without moving balance and
+-- last_entry_id with it. balance_after chains written before per-account locking covered every leg can also be
+-- wrong, so the balance is the signed sum of the entries rather than any single balance_after. last_entry_id and
+-- last_account_seq come from the highest account_seq, which for backfilled entries is V8's (created_at, entry_id)
+-- order. Rows that change get a new version, so cached balances are dropped.
+
+LOCK TABLE account_balance IN EXCLUSIVE MODE;
+
+WITH sums AS (
+    SELECT account_id, SUM(CASE WHEN direction = 'CREDIT' THEN amount ELSE -amount END) AS balance
+    FROM ledger_entry
+    GROUP BY account_id
+), latest AS (
+    SELECT DISTINCT ON (account_id) account_id, entry_id, account_seq
+    FROM ledger_entry
+    ORDER BY account_id, account_seq DESC
+)
+INSERT INTO account_balance (account_id, balance, version, last_entry_id, last_account_seq)
+SELECT s.account_id, s.balance, 1, l.entry_id, l.account_seq
+FROM sums s
+JOIN latest l ON l.account_id = s.account_id
+ON CONFLICT (account_id) DO UPDATE
+SET balance = EXCLUDED.balance,
+    version = account_balance.version + 1,
+    last_entry_id = EXCLUDED.last_entry_id,
+    last_account_seq = EXCLUDED.last_account_seq
+WHERE (account_balance.balance, account_balance.last_entry_id, account_balance.last_account_seq)
+      IS DISTINCT FROM (EXCLUDED.balance, EXCLUDED.last_entry_id, EXCLUDED.last_account_seq);
@@ -0,0 +1,8 @@
+-- System account sharding: each operational system account type can be split into N sub-accounts (shards)
+-- so concurrent postings do not all serialize on one balance_after chain.
+-- shard_index 0 is the original seeded account; further shards are created at startup from
+-- ledger.system-accounts.shard-count and funded from shard 0. User wallet accounts always have shard_index 0.
+
+ALTER TABLE account ADD COLUMN IF NOT EXISTS shard_index INT NOT NULL DEFAULT 0;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_account_system_type_shard ON account (account_type, shard_index) WHERE wallet_id IS NULL;
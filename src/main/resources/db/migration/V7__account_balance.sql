@@ -0,0 +1,21 @@
+-- Materialized current balance per account. ledger_entry stays the immutable source of truth; this table is a
+-- read model the posting engine maintains in the same transaction as the entries, with a compare-and-set on
+-- version (UPDATE ... WHERE version = expected). Accounts without a row have balance 0 and version 0.
+
+CREATE TABLE IF NOT EXISTS account_balance (
+    account_id    UUID           NOT NULL PRIMARY KEY,
+    balance       NUMERIC(19, 4) NOT NULL,
+    version       BIGINT         NOT NULL,
+    last_entry_id UUID           NULL,
+    CONSTRAINT fk_account_balance_account FOREIGN KEY (account_id) REFERENCES account (account_id),
+    CONSTRAINT chk_account_balance_version CHECK (version > 0)
+);
+
+-- Backfill from the latest ledger entry of every account.
+INSERT INTO account_balance (account_id, balance, version, last_entry_id)
+SELECT DISTINCT ON (e.account_id) e.account_id, e.balance_after, 1, e.entry_id
+FROM ledger_entry e
+ORDER BY e.account_id, e.created_at DESC
+ON CONFLICT (account_id) DO NOTHING;
+
+COMMENT ON TABLE account_balance IS 'Current balance per account, maintained with ledger_entry (CAS on version). Rebuildable from ledger_entry.';
@@ -0,0 +1,33 @@
+-- Per-account monotonic entry sequence. created_at is a wall-clock value, so two entries of one account can share
+-- it and "latest" becomes ambiguous. account_seq is assigned by the posting engine (1, 2, 3, ... per account) and
+-- is the ordering used for balance chains, history and reversal. account_balance.last_account_seq is the
+-- sequence of the entry its balance reflects.
+
+ALTER TABLE ledger_entry ADD COLUMN IF NOT EXISTS account_seq BIGINT;
+
+-- Backfill existing entries in (created_at, entry_id) order.
+UPDATE ledger_entry e
+SET account_seq = s.seq
+FROM (
+    SELECT entry_id, ROW_NUMBER() OVER (PARTITION BY account_id ORDER BY created_at, entry_id) AS seq
+    FROM ledger_entry
+) s
+WHERE e.entry_id = s.entry_id AND e.account_seq IS NULL;
+
+ALTER TABLE ledger_entry ALTER COLUMN account_seq SET NOT NULL;
+
+-- Latest balance of an account = one backward index-only scan; also enforces no duplicate sequence numbers.
+CREATE UNIQUE INDEX IF NOT EXISTS idx_ledger_entry_account_seq ON ledger_entry (account_id, account_seq) INCLUDE (balance_after);
+
+-- Superseded by idx_ledger_entry_account_seq (leading account_id column).
+DROP INDEX IF EXISTS idx_ledger_entry_account_created;
+DROP INDEX IF EXISTS idx_ledger_entry_account_id;
+
+ALTER TABLE account_balance ADD COLUMN IF NOT EXISTS last_account_seq BIGINT NOT NULL DEFAULT 0;
+
+UPDATE account_balance b
+SET last_account_seq = s.max_seq
+FROM (SELECT account_id, MAX(account_seq) AS max_seq FROM ledger_entry GROUP BY account_id) s
+WHERE b.account_id = s.account_id;
+
+COMMENT ON COLUMN ledger_entry.account_seq IS 'Per-account gapless sequence (1-based), assigned by the posting engine.';
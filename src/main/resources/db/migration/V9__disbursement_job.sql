@@ -0,0 +1,20 @@
+-- Bulk disbursement runs (settlement -> wallet credits from an uploaded CSV/NDJSON file). lines_committed is the
+-- resume checkpoint: every line up to it has been posted or rejected. posted/replayed/rejected count those lines.
+
+CREATE TABLE IF NOT EXISTS disbursement_job (
+    job_id          UUID           NOT NULL PRIMARY KEY,
+    format          VARCHAR(16)    NOT NULL,
+    file_path       TEXT           NOT NULL,
+    status          VARCHAR(16)    NOT NULL,
+    lines_committed BIGINT         NOT NULL DEFAULT 0,
+    posted          BIGINT         NOT NULL DEFAULT 0,
+    replayed        BIGINT         NOT NULL DEFAULT 0,
+    rejected        BIGINT         NOT NULL DEFAULT 0,
+    posted_amount   NUMERIC(19, 4) NOT NULL DEFAULT 0,
+    error           TEXT           NULL,
+    created_at      TIMESTAMPTZ    NOT NULL,
+    updated_at      TIMESTAMPTZ    NOT NULL,
+    CONSTRAINT chk_disbursement_job_status CHECK (status IN ('PENDING', 'RUNNING', 'COMPLETED', 'FAILED'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_disbursement_job_status ON disbursement_job (status);
@@ -0,0 +1,61 @@
+package com.wallet.ledger.application.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+class FlightRecorderTest {
+
+    private static final String TRANSFER = "POST /api/v1/transfer";
+
+    private FlightRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new FlightRecorder();
+        ReflectionTestUtils.setField(recorder, "enabled", true);
+        // Four slots; the threshold is recomputed every second write and admits the 2 slowest.
+        ReflectionTestUtils.setField(recorder, "slowest", 2);
+        ReflectionTestUtils.setField(recorder, "ringSize", 4);
+        ReflectionTestUtils.setField(recorder, "windowMs", 600_000L);
+    }
+
+    @Test
+    void keepsTheSlowestRequestsWhenFull() {
+        record(TRANSFER, 40, 10, 20, 30);
+        // Threshold is now 30 ms; 35 ms replaces the fastest slot (10 ms), not the oldest (40 ms).
+        record(TRANSFER, 35);
+        Assertions.assertEquals(List.of(40L, 35L, 30L, 20L), elapsedMs(recorder.slowest(TRANSFER, 10)));
+    }
+
+    @Test
+    void requestsBelowTheThresholdAreNotStored() {
+        record(TRANSFER, 40, 10, 20, 30);
+        record(TRANSFER, 25, 29);
+        Assertions.assertEquals(List.of(40L, 30L, 20L, 10L), elapsedMs(recorder.slowest(TRANSFER, 10)));
+    }
+
+    @Test
+    void filtersByEndpointAndLimits() {
+        record(TRANSFER, 10, 30);
+        record("POST /api/v1/cashin", 20);
+        Assertions.assertEquals(List.of(30L, 20L, 10L), elapsedMs(recorder.slowest(null, 10)));
+        Assertions.assertEquals(List.of(30L), elapsedMs(recorder.slowest(TRANSFER, 1)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> recorder.slowest(null, 0));
+    }
+
+    private void record(String endpoint, long... elapsedMs) {
+        for (long ms : elapsedMs) {
+            RequestTrace.begin();
+            recorder.record(endpoint, 200, RequestTrace.end(), TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+    }
+
+    private static List<Long> elapsedMs(List<FlightRecorder.SlowRequest> requests) {
+        return requests.stream().map(r -> TimeUnit.NANOSECONDS.toMillis(r.elapsedNanos())).toList();
+    }
+}
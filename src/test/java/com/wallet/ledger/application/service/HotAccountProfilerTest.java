@@ -0,0 +1,98 @@
+package com.wallet.ledger.application.service;
+
+import com.wallet.ledger.application.port.FindAccountPort;
+import com.wallet.ledger.domain.valueobject.AccountId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+class HotAccountProfilerTest {
+
+    private final FindAccountPort findAccountPort = Mockito.mock(FindAccountPort.class);
+    private HotAccountProfiler profiler;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(findAccountPort.findByIds(Mockito.any())).thenReturn(Map.of());
+        profiler = new HotAccountProfiler(findAccountPort);
+        ReflectionTestUtils.setField(profiler, "enabled", true);
+        // One stripe of two counters, so every new account beyond two evicts; decay only when the test asks.
+        ReflectionTestUtils.setField(profiler, "capacity", 2);
+        ReflectionTestUtils.setField(profiler, "stripeCount", 1);
+        ReflectionTestUtils.setField(profiler, "decayIntervalMs", 3_600_000L);
+        profiler.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        profiler.shutdown();
+    }
+
+    @Test
+    void newAccountEvictsTheLeastLockedAndInheritsItsCount() {
+        AccountId hot = AccountId.generate();
+        AccountId cold = AccountId.generate();
+        AccountId newcomer = AccountId.generate();
+        lock(hot, 3);
+        lock(cold, 1);
+        lock(newcomer, 1);
+
+        Map<AccountId, HotAccountProfiler.HotAccount> top = top();
+        Assertions.assertEquals(2, top.size());
+        Assertions.assertFalse(top.containsKey(cold));
+        Assertions.assertEquals(0, top.get(hot).errorBound());
+        HotAccountProfiler.HotAccount inherited = top.get(newcomer);
+        // Counted 2 (1 inherited + 1 own), of which up to 1 may be error.
+        Assertions.assertEquals(2 * inherited.errorBound(), inherited.locksPerSecond(), 1e-9);
+        Assertions.assertEquals(1.5 * inherited.locksPerSecond(), top.get(hot).locksPerSecond(), 1e-9);
+    }
+
+    @Test
+    void topAccountsAreOrderedByLockCount() {
+        AccountId first = AccountId.generate();
+        AccountId second = AccountId.generate();
+        lock(second, 2);
+        lock(first, 5);
+        List<HotAccountProfiler.HotAccount> top = profiler.topAccounts(10);
+        Assertions.assertEquals(List.of(first, second), top.stream().map(HotAccountProfiler.HotAccount::accountId).toList());
+        Assertions.assertEquals(1, profiler.topAccounts(1).size());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> profiler.topAccounts(0));
+    }
+
+    @Test
+    void decayHalvesCounts() {
+        AccountId hot = AccountId.generate();
+        AccountId cold = AccountId.generate();
+        lock(hot, 8);
+        lock(cold, 2);
+        double before = top().get(hot).locksPerSecond();
+        ReflectionTestUtils.invokeMethod(profiler, "decay");
+        // The rate's time base is interval + time since the last decay, so it barely moves within the test.
+        Assertions.assertEquals(before / 2, top().get(hot).locksPerSecond(), before * 1e-3);
+
+        // After decay a newcomer inherits the halved count of the least-locked account.
+        AccountId newcomer = AccountId.generate();
+        lock(newcomer, 1);
+        Map<AccountId, HotAccountProfiler.HotAccount> top = top();
+        Assertions.assertFalse(top.containsKey(cold));
+        Assertions.assertEquals(2 * top.get(newcomer).errorBound(), top.get(newcomer).locksPerSecond(), 1e-9);
+    }
+
+    private void lock(AccountId accountId, int times) {
+        for (int i = 0; i < times; i++) {
+            profiler.onLockTimeout(List.of(accountId), 1_000);
+        }
+    }
+
+    private Map<AccountId, HotAccountProfiler.HotAccount> top() {
+        return profiler.topAccounts(10).stream().collect(Collectors.toMap(HotAccountProfiler.HotAccount::accountId, Function.identity()));
+    }
+}
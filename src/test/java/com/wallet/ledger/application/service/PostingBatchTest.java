@@ -0,0 +1,136 @@
+package com.wallet.ledger.application.service;
+
+import com.wallet.ledger.application.port.AccountBalanceSnapshot;
+import com.wallet.ledger.application.port.AccountBalanceUpdate;
+import com.wallet.ledger.application.port.PostingCommand;
+import com.wallet.ledger.application.port.PostingLeg;
+import com.wallet.ledger.domain.entity.LedgerEntry;
+import com.wallet.ledger.domain.exception.InsufficientBalanceException;
+import com.wallet.ledger.domain.exception.InvalidPostingException;
+import com.wallet.ledger.domain.valueobject.AccountId;
+import com.wallet.ledger.domain.valueobject.EntryDirection;
+import com.wallet.ledger.domain.valueobject.EntryId;
+import com.wallet.ledger.domain.valueobject.LedgerAmount;
+import com.wallet.ledger.domain.valueobject.TransactionId;
+import com.wallet.ledger.domain.valueobject.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+class PostingBatchTest {
+
+    private final AccountId master = AccountId.generate();
+    private final AccountId alice = AccountId.generate();
+    private final AccountId bob = AccountId.generate();
+
+    @Test
+    void validateRequiresLegs() {
+        Assertions.assertThrows(InvalidPostingException.class, () -> PostingBatch.validate(command()));
+    }
+
+    @Test
+    void validateRequiresDebitsToEqualCredits() {
+        PostingCommand unbalanced = command(
+                leg(alice, EntryDirection.DEBIT, "10.00"),
+                leg(bob, EntryDirection.CREDIT, "9.99"));
+        Assertions.assertThrows(InvalidPostingException.class, () -> PostingBatch.validate(unbalanced));
+        PostingBatch.validate(command(
+                leg(alice, EntryDirection.DEBIT, "10.00"),
+                leg(bob, EntryDirection.CREDIT, "4.00"),
+                leg(bob, EntryDirection.CREDIT, "6.00")));
+    }
+
+    @Test
+    void validateRejectsOverflowingLegTotals() {
+        PostingCommand huge = command(
+                leg(alice, EntryDirection.DEBIT, LedgerAmount.ofMinorUnits(Long.MAX_VALUE)),
+                leg(alice, EntryDirection.DEBIT, LedgerAmount.ofMinorUnits(1)),
+                leg(bob, EntryDirection.CREDIT, LedgerAmount.ofMinorUnits(Long.MAX_VALUE)));
+        Assertions.assertThrows(ArithmeticException.class, () -> PostingBatch.validate(huge));
+    }
+
+    @Test
+    void legsAreRoundedOnceWhenBuilt() {
+        Assertions.assertEquals(1, leg(alice, EntryDirection.DEBIT, "0.00005").getAmount().minorUnits());
+        Assertions.assertEquals(0, leg(alice, EntryDirection.DEBIT, "0.00004").getAmount().minorUnits());
+    }
+
+    @Test
+    void laterPostingsSeeRunningBalances() {
+        PostingBatch batch = new PostingBatch(Map.of(alice, snapshot(alice, "10.00", 3, 7)), master);
+        batch.add(command(leg(alice, EntryDirection.DEBIT, "10.00"), leg(bob, EntryDirection.CREDIT, "10.00")));
+        batch.add(command(leg(bob, EntryDirection.DEBIT, "4.00"), leg(alice, EntryDirection.CREDIT, "4.00")));
+
+        List<LedgerEntry> entries = batch.entries();
+        Assertions.assertEquals(4, entries.size());
+        Assertions.assertEquals(LedgerAmount.of(new BigDecimal("6.00")), entries.get(2).getBalanceAfter());
+        Assertions.assertEquals(LedgerAmount.of(new BigDecimal("4.00")), entries.get(3).getBalanceAfter());
+        Assertions.assertEquals(8, entries.get(0).getAccountSeq());
+        Assertions.assertEquals(9, entries.get(3).getAccountSeq());
+        Assertions.assertEquals(2, entries.get(2).getAccountSeq());
+
+        Map<AccountId, AccountBalanceUpdate> updates = byAccount(batch.balanceUpdates());
+        Assertions.assertEquals(3, updates.get(alice).expectedVersion());
+        Assertions.assertEquals(0, updates.get(bob).expectedVersion());
+        Assertions.assertEquals(LedgerAmount.of(new BigDecimal("6.00")), updates.get(bob).balance());
+        Assertions.assertEquals(4, batch.resultingSnapshots().get(alice).version());
+    }
+
+    @Test
+    void rejectedPostingLeavesBatchUntouched() {
+        PostingBatch batch = new PostingBatch(Map.of(alice, snapshot(alice, "5.00", 1, 1)), master);
+        Assertions.assertThrows(InsufficientBalanceException.class, () -> batch.add(
+                command(leg(alice, EntryDirection.DEBIT, "5.01"), leg(bob, EntryDirection.CREDIT, "5.01"))));
+        Assertions.assertTrue(batch.isEmpty());
+        Assertions.assertTrue(batch.balanceUpdates().isEmpty());
+
+        batch.add(command(leg(alice, EntryDirection.DEBIT, "5.00"), leg(bob, EntryDirection.CREDIT, "5.00")));
+        Assertions.assertEquals(LedgerAmount.ZERO, byAccount(batch.balanceUpdates()).get(alice).balance());
+    }
+
+    @Test
+    void onlyTheMasterAccountMayGoNegative() {
+        PostingBatch batch = new PostingBatch(Map.of(), master);
+        batch.add(command(leg(master, EntryDirection.DEBIT, "100.00"), leg(alice, EntryDirection.CREDIT, "100.00")));
+        Assertions.assertEquals(LedgerAmount.of(new BigDecimal("-100.00")), byAccount(batch.balanceUpdates()).get(master).balance());
+    }
+
+    @Test
+    void balanceOverflowRejectsThePostingOnly() {
+        AccountBalanceSnapshot full = new AccountBalanceSnapshot(alice, LedgerAmount.ofMinorUnits(Long.MAX_VALUE), 1, EntryId.generate(), 1);
+        PostingBatch batch = new PostingBatch(Map.of(alice, full), master);
+        Assertions.assertThrows(ArithmeticException.class, () -> batch.add(
+                command(leg(master, EntryDirection.DEBIT, "0.0001"), leg(alice, EntryDirection.CREDIT, "0.0001"))));
+        Assertions.assertTrue(batch.isEmpty());
+        Assertions.assertTrue(batch.balanceUpdates().isEmpty());
+    }
+
+    private static Map<AccountId, AccountBalanceUpdate> byAccount(List<AccountBalanceUpdate> updates) {
+        return updates.stream().collect(Collectors.toMap(AccountBalanceUpdate::accountId, u -> u));
+    }
+
+    private static AccountBalanceSnapshot snapshot(AccountId accountId, String balance, long version, long lastAccountSeq) {
+        return new AccountBalanceSnapshot(accountId, LedgerAmount.of(new BigDecimal(balance)), version, EntryId.generate(), lastAccountSeq);
+    }
+
+    private static PostingLeg leg(AccountId accountId, EntryDirection direction, String amount) {
+        return PostingLeg.builder().accountId(accountId).direction(direction).amount(new BigDecimal(amount)).build();
+    }
+
+    private static PostingLeg leg(AccountId accountId, EntryDirection direction, LedgerAmount amount) {
+        return PostingLeg.builder().accountId(accountId).direction(direction).amount(amount).build();
+    }
+
+    private static PostingCommand command(PostingLeg... legs) {
+        return PostingCommand.builder()
+                .transactionId(TransactionId.generate())
+                .transactionType(TransactionType.TRANSFER)
+                .referenceId("ref-" + TransactionId.generate().value())
+                .legs(List.of(legs))
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.wallet.ledger.application.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+class RecentReferenceFilterTest {
+
+    @Test
+    void remembersAddedKeys() {
+        RecentReferenceFilter filter = new RecentReferenceFilter(1000, 0.01, TimeUnit.MINUTES.toNanos(10));
+        for (int i = 0; i < 1000; i++) {
+            filter.add("ref-" + i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertTrue(filter.mightContain("ref-" + i));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        RecentReferenceFilter filter = new RecentReferenceFilter(10_000, 0.01, TimeUnit.MINUTES.toNanos(10));
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("posted-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("new-" + i)) falsePositives++;
+        }
+        Assertions.assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void keyOutlivesOneRotationButNotTwo() throws InterruptedException {
+        long windowMs = 50;
+        RecentReferenceFilter filter = new RecentReferenceFilter(1000, 0.01, TimeUnit.MILLISECONDS.toNanos(windowMs));
+        filter.add("ref-1");
+        Thread.sleep(windowMs + 20);
+        // Rotated once: the key's generation is now the previous one.
+        Assertions.assertTrue(filter.mightContain("ref-1"));
+        filter.add("ref-2");
+        Thread.sleep(windowMs + 20);
+        // Rotated twice: ref-1's generation is dropped, ref-2's is still the previous one.
+        Assertions.assertFalse(filter.mightContain("ref-1"));
+        Assertions.assertTrue(filter.mightContain("ref-2"));
+    }
+}
@@ -0,0 +1,39 @@
+package com.wallet.ledger.domain.valueobject;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+class LedgerAmountTest {
+
+    @Test
+    void roundsHalfUpToScale4() {
+        Assertions.assertEquals(10001, LedgerAmount.of(new BigDecimal("1.00005")).minorUnits());
+        Assertions.assertEquals(10000, LedgerAmount.of(new BigDecimal("1.00004")).minorUnits());
+        Assertions.assertEquals(-10001, LedgerAmount.of(new BigDecimal("-1.00005")).minorUnits());
+        Assertions.assertEquals(1_000_000, LedgerAmount.of(new BigDecimal("100")).minorUnits());
+    }
+
+    @Test
+    void convertsBackAtScale4() {
+        Assertions.assertEquals(new BigDecimal("12.3400"), LedgerAmount.of(new BigDecimal("12.34")).toBigDecimal());
+        Assertions.assertEquals("0.0001", LedgerAmount.ofMinorUnits(1).toString());
+    }
+
+    @Test
+    void rejectsAmountsBeyondLongRange() {
+        Assertions.assertEquals(Long.MAX_VALUE, LedgerAmount.of(new BigDecimal("922337203685477.5807")).minorUnits());
+        Assertions.assertThrows(ArithmeticException.class, () -> LedgerAmount.of(new BigDecimal("922337203685477.5808")));
+        Assertions.assertThrows(ArithmeticException.class, () -> LedgerAmount.of(new BigDecimal("1e30")));
+    }
+
+    @Test
+    void arithmeticIsOverflowChecked() {
+        LedgerAmount max = LedgerAmount.ofMinorUnits(Long.MAX_VALUE);
+        Assertions.assertThrows(ArithmeticException.class, () -> max.plus(LedgerAmount.ofMinorUnits(1)));
+        Assertions.assertThrows(ArithmeticException.class, () -> LedgerAmount.ofMinorUnits(Long.MIN_VALUE).minus(LedgerAmount.ofMinorUnits(1)));
+        Assertions.assertEquals(LedgerAmount.ofMinorUnits(-5), LedgerAmount.ofMinorUnits(10).minus(LedgerAmount.ofMinorUnits(15)));
+        Assertions.assertTrue(LedgerAmount.ofMinorUnits(-5).isNegative());
+    }
+}